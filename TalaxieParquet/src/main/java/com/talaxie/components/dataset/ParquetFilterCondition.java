@@ -0,0 +1,74 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.dataset;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+
+@GridLayout({
+        @GridLayout.Row({ "column", "operator", "value" })
+})
+@Documentation("Condition de filtre sur une colonne Parquet, poussée jusqu'aux statistiques du footer.")
+public class ParquetFilterCondition implements Serializable {
+
+    public enum Operator {
+        EQUALS,
+        NOT_EQUALS,
+        LESS_THAN,
+        LESS_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_OR_EQUAL,
+        IN,
+        IS_NULL,
+        IS_NOT_NULL
+    }
+
+    @Option
+    @Documentation("Nom de la colonne filtrée.")
+    private String column;
+
+    @Option
+    @Documentation("Opérateur de comparaison.")
+    private Operator operator = Operator.EQUALS;
+
+    @Option
+    @Documentation("Valeur de comparaison (liste séparée par des virgules pour IN, "
+            + "format ISO pour les dates : 2024-01-31 ou 2024-01-31T12:00:00Z).")
+    private String value;
+
+    public String getColumn() {
+        return column;
+    }
+
+    public ParquetFilterCondition setColumn(final String column) {
+        this.column = column;
+        return this;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public ParquetFilterCondition setOperator(final Operator operator) {
+        this.operator = operator;
+        return this;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public ParquetFilterCondition setValue(final String value) {
+        this.value = value;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return column + " " + operator + (value == null ? "" : " " + value);
+    }
+}
@@ -4,10 +4,13 @@
 package com.talaxie.components.dataset;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.talaxie.components.datastore.ParquetDatastore;
 import com.talaxie.components.service.Compression;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.condition.ActiveIf;
 import org.talend.sdk.component.api.configuration.constraint.Required;
 import org.talend.sdk.component.api.configuration.type.DataSet;
 import org.talend.sdk.component.api.configuration.ui.DefaultValue;
@@ -17,7 +20,13 @@ import org.talend.sdk.component.api.meta.Documentation;
 @DataSet("ParquetInputDataset")
 @GridLayout({
         @GridLayout.Row({ "path" }),
-        @GridLayout.Row({ "compression" })
+        @GridLayout.Row({ "recursive" }),
+        @GridLayout.Row({ "compression" }),
+        @GridLayout.Row({ "columns" }),
+        @GridLayout.Row({ "filters" }),
+        @GridLayout.Row({ "limit", "offset" }),
+        @GridLayout.Row({ "sampling" }),
+        @GridLayout.Row({ "samplingInterval", "samplingFraction", "samplingSeed" })
 })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value = {
         @GridLayout.Row({ "datastore" })
@@ -25,20 +34,69 @@ import org.talend.sdk.component.api.meta.Documentation;
 @Documentation("Dataset pour la lecture Parquet.")
 public class ParquetInputDataset implements Serializable {
 
+    public enum Sampling {
+        NONE,
+        EVERY_KTH_ROW_GROUP,
+        RANDOM_ROW_GROUPS
+    }
+
     @Option
     @Documentation("Datastore (non affiché)")
     private ParquetDatastore datastore;
 
     @Option
     @Required
-    @Documentation("Chemin complet du fichier Parquet.")
+    @Documentation("Chemin d'un fichier Parquet, d'un répertoire ou motif glob (ex : /data/*.parquet). "
+            + "Un chemin relatif est résolu par rapport au chemin de base du datastore.")
     private String path;
 
+    @Option
+    @Documentation("Parcourt aussi les sous-répertoires lorsque le chemin est un répertoire.")
+    private boolean recursive = false;
+
     @Option
     @DefaultValue("SNAPPY")
     @Documentation("Compression détectée ou imposée (lecture).")
     private Compression compression;
 
+    @Option
+    @Documentation("Colonnes à lire (projection). Vide : toutes les colonnes. "
+            + "Seuls les column chunks sélectionnés sont lus et décompressés.")
+    private List<String> columns = new ArrayList<>();
+
+    @Option
+    @Documentation("Filtres (combinés par ET) : les row groups dont les statistiques excluent "
+            + "toute correspondance ne sont pas lus, les autres lignes sont filtrées à la lecture.")
+    private List<ParquetFilterCondition> filters = new ArrayList<>();
+
+    @Option
+    @Documentation("Nombre maximum de lignes lues. 0 : pas de limite.")
+    private long limit = 0L;
+
+    @Option
+    @Documentation("Nombre de lignes ignorées en début de dataset. Sans filtre, les row groups entiers "
+            + "sont sautés d'après les nombres de lignes du footer, sans être lus.")
+    private long offset = 0L;
+
+    @Option
+    @Documentation("Échantillonnage par row group : un row group sur k, ou une fraction aléatoire des row groups.")
+    private Sampling sampling = Sampling.NONE;
+
+    @Option
+    @ActiveIf(target = "sampling", value = "EVERY_KTH_ROW_GROUP")
+    @Documentation("k : un row group lu sur k.")
+    private int samplingInterval = 10;
+
+    @Option
+    @ActiveIf(target = "sampling", value = "RANDOM_ROW_GROUPS")
+    @Documentation("Fraction des row groups lus, entre 0 et 1.")
+    private double samplingFraction = 0.1;
+
+    @Option
+    @ActiveIf(target = "sampling", value = "RANDOM_ROW_GROUPS")
+    @Documentation("Graine du tirage aléatoire : une même graine donne le même échantillon.")
+    private long samplingSeed = 0L;
+
     public ParquetDatastore getDatastore() {
         return datastore;
     }
@@ -56,6 +114,15 @@ public class ParquetInputDataset implements Serializable {
         return this;
     }
 
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    public ParquetInputDataset setRecursive(final boolean recursive) {
+        this.recursive = recursive;
+        return this;
+    }
+
     public Compression getCompression() {
         return compression;
     }
@@ -63,4 +130,83 @@ public class ParquetInputDataset implements Serializable {
     public void setCompression(final Compression compression) {
         this.compression = compression;
     }
-}
\ No newline at end of file
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public ParquetInputDataset setColumns(final List<String> columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    public List<ParquetFilterCondition> getFilters() {
+        return filters;
+    }
+
+    public ParquetInputDataset setFilters(final List<ParquetFilterCondition> filters) {
+        this.filters = filters;
+        return this;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public ParquetInputDataset setLimit(final long limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public ParquetInputDataset setOffset(final long offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public ParquetInputDataset setSampling(final Sampling sampling) {
+        this.sampling = sampling;
+        return this;
+    }
+
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    public ParquetInputDataset setSamplingInterval(final int samplingInterval) {
+        this.samplingInterval = samplingInterval;
+        return this;
+    }
+
+    public double getSamplingFraction() {
+        return samplingFraction;
+    }
+
+    public ParquetInputDataset setSamplingFraction(final double samplingFraction) {
+        this.samplingFraction = samplingFraction;
+        return this;
+    }
+
+    public long getSamplingSeed() {
+        return samplingSeed;
+    }
+
+    public ParquetInputDataset setSamplingSeed(final long samplingSeed) {
+        this.samplingSeed = samplingSeed;
+        return this;
+    }
+
+    /**
+     * Lecture bornée (limite, décalage ou échantillon) : planifiée row group par row group.
+     */
+    public boolean isBounded() {
+        return limit > 0 || offset > 0 || (sampling != null && sampling != Sampling.NONE);
+    }
+}
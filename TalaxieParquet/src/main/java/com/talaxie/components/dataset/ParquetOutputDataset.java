@@ -45,4 +45,8 @@ public class ParquetOutputDataset implements Serializable {
     public String getPath() { return path; }
     public Compression getCompression() { return compression; }
     public boolean isOverwrite() { return overwrite; }
+
+    public ParquetOutputDataset setPath(final String path) { this.path = path; return this; }
+    public ParquetOutputDataset setCompression(final Compression compression) { this.compression = compression; return this; }
+    public ParquetOutputDataset setOverwrite(final boolean overwrite) { this.overwrite = overwrite; return this; }
 }
\ No newline at end of file
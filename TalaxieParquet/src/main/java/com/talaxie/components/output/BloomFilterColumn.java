@@ -0,0 +1,56 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+
+@GridLayout({
+        @GridLayout.Row({ "column", "expectedDistinctValues", "falsePositiveProbability" })
+})
+@Documentation("Paramètres du bloom filter écrit pour une colonne.")
+public class BloomFilterColumn implements Serializable {
+
+    @Option
+    @Documentation("Nom de la colonne (clé de recherche, ex : customer_id).")
+    private String column;
+
+    @Option
+    @Documentation("Nombre de valeurs distinctes attendues par row group. 0 : taille par défaut de Parquet.")
+    private long expectedDistinctValues = 0L;
+
+    @Option
+    @Documentation("Probabilité de faux positif visée. 0 : valeur par défaut de Parquet (0.01).")
+    private double falsePositiveProbability = 0d;
+
+    public String getColumn() {
+        return column;
+    }
+
+    public BloomFilterColumn setColumn(final String column) {
+        this.column = column;
+        return this;
+    }
+
+    public long getExpectedDistinctValues() {
+        return expectedDistinctValues;
+    }
+
+    public BloomFilterColumn setExpectedDistinctValues(final long expectedDistinctValues) {
+        this.expectedDistinctValues = expectedDistinctValues;
+        return this;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public BloomFilterColumn setFalsePositiveProbability(final double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+        return this;
+    }
+}
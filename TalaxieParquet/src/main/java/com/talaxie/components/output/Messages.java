@@ -22,6 +22,10 @@ public class Messages {
         return BUNDLE.getString("errorFileExistsAndOverwriteDisabled").replace("{0}", path);
     }
 
+    public static String errorPartitionColumnNotFound(String column) {
+        return BUNDLE.getString("errorPartitionColumnNotFound").replace("{0}", column);
+    }
+
     public static String errorParquetWriter() {
         return BUNDLE.getString("errorParquetWriter");
     }
@@ -0,0 +1,62 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifeste des fichiers écrits dans un répertoire de sortie ({@value #FILE_NAME}).
+ * Il est réécrit (fichier temporaire puis renommage atomique) à chaque fichier finalisé :
+ * un consommateur peut traiter les fichiers listés sans attendre la fin de l'écriture,
+ * {@code "complete": true} indiquant que la liste est définitive.
+ */
+final class OutputManifest {
+
+    static final String FILE_NAME = "_manifest.json";
+
+    private final File directory;
+    private final List<String> files = new ArrayList<>();
+    private boolean complete;
+
+    OutputManifest(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param path chemin du fichier finalisé, relatif au répertoire de sortie
+     */
+    synchronized void add(final String path, final long rows, final long bytes) throws IOException {
+        files.add("{\"path\":\"" + escape(path) + "\",\"rows\":" + rows + ",\"bytes\":" + bytes + "}");
+        write();
+    }
+
+    synchronized void complete() throws IOException {
+        this.complete = true;
+        write();
+    }
+
+    private void write() throws IOException {
+        final StringBuilder json = new StringBuilder("{\"complete\":").append(complete).append(",\"files\":[");
+        for (int i = 0; i < files.size(); i++) {
+            json.append(i == 0 ? "\n  " : ",\n  ").append(files.get(i));
+        }
+        json.append("\n]}\n");
+
+        final File target = new File(directory, FILE_NAME);
+        final File temporary = new File(directory, FILE_NAME + ".tmp");
+        Files.write(temporary.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
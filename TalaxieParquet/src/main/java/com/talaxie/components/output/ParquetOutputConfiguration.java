@@ -4,21 +4,33 @@
 package com.talaxie.components.output;
 
 import com.talaxie.components.dataset.ParquetOutputDataset;
+import com.talaxie.components.service.FsyncPolicy;
+import com.talaxie.components.service.LocalOutputFile;
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.configuration.ui.meta.Ui;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 @GridLayout({
-        @GridLayout.Row("dataset") // visible dans l’onglet principal
+        @GridLayout.Row("dataset"), // visible dans l’onglet principal
+        @GridLayout.Row({ "maxBytesPerFile", "maxRowsPerFile", "rowGroupsPerFile" }),
+        @GridLayout.Row("partitionColumns")
 })
 @GridLayout(names = GridLayout.FormType.ADVANCED, value ={
         @GridLayout.Row("rowGroupSize"),
         @GridLayout.Row("pageSize"),
         @GridLayout.Row("dictionaryPageSize"),
-        @GridLayout.Row("enableDictionary")
+        @GridLayout.Row("enableDictionary"),
+        @GridLayout.Row("bloomFilterColumns"),
+        @GridLayout.Row("nativeWriter"),
+        @GridLayout.Row("writeBufferSize"),
+        @GridLayout.Row("writeBehind"),
+        @GridLayout.Row("fsyncPolicy"),
+        @GridLayout.Row({ "maxOpenWriters", "writerMemoryBudget" })
 })
 @Documentation("Configuration avancée du composant ParquetOutput.")
 public class ParquetOutputConfiguration implements Serializable {
@@ -34,6 +46,81 @@ public class ParquetOutputConfiguration implements Serializable {
         return dataset;
     }
 
+    public ParquetOutputConfiguration setDataset(final ParquetOutputDataset dataset) {
+        this.dataset = dataset;
+        return this;
+    }
+
+    // =====================================================
+    //    SECTION PRINCIPALE : fichiers de sortie
+    // =====================================================
+
+    @Option
+    @Documentation("Taille max d'un fichier en octets. Si une limite par fichier est définie, le chemin du "
+            + "dataset est un répertoire de fichiers part-00000.parquet, part-00001.parquet... avec un "
+            + "manifeste _manifest.json. 0 : illimitée.")
+    private long maxBytesPerFile = 0L;
+
+    public long getMaxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+
+    public ParquetOutputConfiguration setMaxBytesPerFile(final long maxBytesPerFile) {
+        this.maxBytesPerFile = maxBytesPerFile;
+        return this;
+    }
+
+    @Option
+    @Documentation("Nombre max de lignes par fichier. 0 : illimité.")
+    private long maxRowsPerFile = 0L;
+
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+
+    public ParquetOutputConfiguration setMaxRowsPerFile(final long maxRowsPerFile) {
+        this.maxRowsPerFile = maxRowsPerFile;
+        return this;
+    }
+
+    @Option
+    @Documentation("Nombre de row groups par fichier, comptés à leur écriture (quelle que soit la compression). 0 : illimité.")
+    private int rowGroupsPerFile = 0;
+
+    public int getRowGroupsPerFile() {
+        return rowGroupsPerFile;
+    }
+
+    public ParquetOutputConfiguration setRowGroupsPerFile(final int rowGroupsPerFile) {
+        this.rowGroupsPerFile = rowGroupsPerFile;
+        return this;
+    }
+
+    /**
+     * Écriture en plusieurs fichiers numérotés, dans le répertoire du dataset.
+     */
+    public boolean isRolling() {
+        return maxBytesPerFile > 0 || maxRowsPerFile > 0 || rowGroupsPerFile > 0;
+    }
+
+    @Option
+    @Documentation("Colonnes de partition : les records sont écrits dans les sous-répertoires col=valeur/ "
+            + "du chemin du dataset (à la Hive), sans ces colonnes dans les fichiers.")
+    private List<String> partitionColumns = new ArrayList<>();
+
+    public List<String> getPartitionColumns() {
+        return partitionColumns;
+    }
+
+    public ParquetOutputConfiguration setPartitionColumns(final List<String> partitionColumns) {
+        this.partitionColumns = partitionColumns;
+        return this;
+    }
+
+    public boolean isPartitioned() {
+        return partitionColumns != null && !partitionColumns.isEmpty();
+    }
+
     // =====================================================
     //    SECTION AVANCÉE : Parquet Tuning
     // =====================================================
@@ -46,6 +133,11 @@ public class ParquetOutputConfiguration implements Serializable {
         return rowGroupSize;
     }
 
+    public ParquetOutputConfiguration setRowGroupSize(final long rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+        return this;
+    }
+
     @Option
     @Documentation("Taille d'une page Parquet en octets. Défaut : 32768 (32 KB).")
     private int pageSize = 32_768;
@@ -69,4 +161,101 @@ public class ParquetOutputConfiguration implements Serializable {
     public boolean isEnableDictionary() {
         return enableDictionary;
     }
-}
\ No newline at end of file
+
+    @Option
+    @Documentation("Colonnes pour lesquelles un bloom filter est écrit. Permet d'écarter les row groups "
+            + "sans la valeur recherchée lors des lectures filtrées par égalité ou IN.")
+    private List<BloomFilterColumn> bloomFilterColumns = new ArrayList<>();
+
+    public List<BloomFilterColumn> getBloomFilterColumns() {
+        return bloomFilterColumns;
+    }
+
+    public ParquetOutputConfiguration setBloomFilterColumns(final List<BloomFilterColumn> bloomFilterColumns) {
+        this.bloomFilterColumns = bloomFilterColumns;
+        return this;
+    }
+
+    @Option
+    @Documentation("Écriture directe des records Talend dans Parquet, sans objet Avro intermédiaire. "
+            + "Le fichier produit a le même schéma qu'en écriture Avro.")
+    private boolean nativeWriter = false;
+
+    public boolean isNativeWriter() {
+        return nativeWriter;
+    }
+
+    public ParquetOutputConfiguration setNativeWriter(final boolean nativeWriter) {
+        this.nativeWriter = nativeWriter;
+        return this;
+    }
+
+    @Option
+    @Documentation("Taille du tampon d'écriture en octets : les écritures de l'encodeur sont regroupées "
+            + "en un appel système par tampon plein. Défaut : 8388608 (8 Mo).")
+    private int writeBufferSize = LocalOutputFile.DEFAULT_BUFFER_SIZE;
+
+    public int getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public ParquetOutputConfiguration setWriteBufferSize(final int writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+        return this;
+    }
+
+    @Option
+    @Documentation("Écriture différée : un tampon est écrit sur disque par un thread dédié pendant "
+            + "que l'encodage remplit le suivant.")
+    private boolean writeBehind = false;
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public ParquetOutputConfiguration setWriteBehind(final boolean writeBehind) {
+        this.writeBehind = writeBehind;
+        return this;
+    }
+
+    @Option
+    @Documentation("Synchronisation sur disque (fsync) : aucune, à la fermeture du fichier, ou à chaque row group.")
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NONE;
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public ParquetOutputConfiguration setFsyncPolicy(final FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+        return this;
+    }
+
+    @Option
+    @Documentation("Écriture partitionnée : nombre max de fichiers ouverts en même temps. Au-delà, le fichier "
+            + "de la partition utilisée le moins récemment est finalisé. Défaut : 32.")
+    private int maxOpenWriters = 32;
+
+    public int getMaxOpenWriters() {
+        return maxOpenWriters;
+    }
+
+    public ParquetOutputConfiguration setMaxOpenWriters(final int maxOpenWriters) {
+        this.maxOpenWriters = maxOpenWriters;
+        return this;
+    }
+
+    @Option
+    @Documentation("Écriture partitionnée : mémoire max des fichiers ouverts (row groups en cours et tampons "
+            + "d'écriture), en octets. 0 : non bornée. Défaut : 1073741824 (1 Go).")
+    private long writerMemoryBudget = 1_073_741_824L;
+
+    public long getWriterMemoryBudget() {
+        return writerMemoryBudget;
+    }
+
+    public ParquetOutputConfiguration setWriterMemoryBudget(final long writerMemoryBudget) {
+        this.writerMemoryBudget = writerMemoryBudget;
+        return this;
+    }
+}
@@ -12,6 +12,7 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.schema.MessageType;
 
 import org.talend.sdk.component.api.component.Version;
 import org.talend.sdk.component.api.component.Icon;
@@ -26,6 +27,14 @@ import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Function;
 import static org.talend.sdk.component.api.component.Icon.IconType.CUSTOM;
 
 @Version(2)
@@ -36,8 +45,21 @@ public class ParquetOutputProcessor implements Serializable {
 
     private final ParquetOutputSchemaService schemaService;
     private final ParquetOutputConfiguration configuration;
-    private transient ParquetWriter<GenericRecord> writer;
+    // Fichier unique, suite de fichiers part-NNNNN.parquet si une limite par fichier est définie,
+    // ou répertoires de partitions
+    private transient RecordSink output;
+    private transient OutputManifest manifest;
+    // Écriture en échec : le manifeste reste incomplet
+    private transient boolean failed;
     private transient Schema avroSchema;
+    // Plan de conversion Avro, compilé pour le schéma Talend planSchema
+    private transient org.talend.sdk.component.api.record.Schema planSchema;
+    private transient AvroConverter[] converters;
+    private transient int[] positions;
+    // Écriture directe (sans Avro) : entrées écrites et schéma Parquet, depuis le premier record
+    private transient List<Entry> recordEntries;
+    private transient boolean[] typedEntries;
+    private transient MessageType parquetSchema;
 
     public ParquetOutputProcessor(
             @Option("configuration") final ParquetOutputConfiguration configuration,
@@ -52,6 +74,11 @@ public class ParquetOutputProcessor implements Serializable {
         ParquetOutputDataset ds = configuration.getDataset();
         String path = ds.getPath();
 
+        if (configuration.isRolling() || configuration.isPartitioned()) {
+            prepareDirectory(new File(path));
+            return;
+        }
+
         if (ds.isOverwrite()) {
             File f = new File(path);
             if (f.exists()) {
@@ -71,81 +98,185 @@ public class ParquetOutputProcessor implements Serializable {
         }
 
         try {
-            if (writer == null) {
+            if (output == null) {
                 initWriter(record);
             }
-
-            GenericRecord avroRecord = new GenericData.Record(avroSchema);
-
-            for (Entry e : record.getSchema().getEntries()) {
-                Object rawValue = record.get(Object.class, e.getName());
-                Object converted = convertValue(rawValue, e);
-                avroRecord.put(e.getName(), converted);
-            }
-
-            writer.write(avroRecord);
+            output.write(record);
 
         } catch (Exception e) {
+            failed = true;
             e.printStackTrace();
             throw new IllegalStateException(Messages.errorParquetWriter(), e);
         }
     }
 
-    private Object convertValue(Object value, Entry entry) {
-        if (value == null) {
-            return null;
+    private GenericRecord toAvro(final Record record) {
+        // Plan recompilé seulement si le schéma entrant change réellement
+        final org.talend.sdk.component.api.record.Schema schema = record.getSchema();
+        if (schema != planSchema && !schema.equals(planSchema)) {
+            compilePlan(record);
         }
 
-        try {
-            switch (entry.getType()) {
-                case INT:
-                    if (value instanceof Number) return ((Number) value).intValue();
-                    return Integer.parseInt(value.toString());
-
-                case LONG:
-                    if (value instanceof Number) return ((Number) value).longValue();
-                    return Long.parseLong(value.toString());
-
-                case FLOAT:
-                    if (value instanceof Number) return ((Number) value).floatValue();
-                    return Float.parseFloat(value.toString());
-
-                case DOUBLE:
-                    if (value instanceof Number) return ((Number) value).doubleValue();
-                    return Double.parseDouble(value.toString());
-
-                case BOOLEAN:
-                    return Boolean.valueOf(value.toString());
-
-                case DATETIME:
-                    if (value instanceof java.time.Instant instant) {
-                        return instant.toEpochMilli();
-                    }
-                    if (value instanceof java.time.LocalDateTime dt) {
-                        return dt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                    }
-                    if (value instanceof java.time.LocalDate date) {
-                        return date.atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
-                    }
-                    return null;
-
-                case BYTES:
-                    return value instanceof byte[] ? value : value.toString().getBytes();
-
-                case STRING:
-                default:
-                    return value.toString();
+        final GenericData.Record avroRecord = new GenericData.Record(avroSchema);
+        final AvroConverter[] plan = converters;
+        final int[] fields = positions;
+        for (int i = 0; i < plan.length; i++) {
+            avroRecord.put(fields[i], plan[i].convert(record));
+        }
+        return avroRecord;
+    }
+
+    /**
+     * Un convertisseur par entrée du schéma Talend, écrit à la position de son champ Avro.
+     * Le premier record du schéma décide de la lecture de chaque entrée ({@link RecordValues#typedEntries}).
+     */
+    private void compilePlan(final Record sample) {
+        final org.talend.sdk.component.api.record.Schema schema = sample.getSchema();
+        final List<Entry> entries = dataEntries(schema);
+        final boolean[] typed = RecordValues.typedEntries(sample, entries);
+        final AvroConverter[] plan = new AvroConverter[entries.size()];
+        final int[] fields = new int[entries.size()];
+
+        for (int i = 0; i < plan.length; i++) {
+            final Entry entry = entries.get(i);
+            final Schema.Field field = avroSchema.getField(entry.getName());
+            if (field == null) {
+                throw new IllegalStateException("Unknown field for the Parquet schema: " + entry.getName());
             }
-        } catch (Exception e) {
-            throw e;
+            fields[i] = field.pos();
+            plan[i] = converter(entry, typed[i]);
+        }
+
+        this.converters = plan;
+        this.positions = fields;
+        this.planSchema = schema;
+    }
+
+    /**
+     * Valeur du record convertie vers le type Avro du champ (null si absente).
+     */
+    @FunctionalInterface
+    private interface AvroConverter {
+
+        Object convert(Record record);
+    }
+
+    /**
+     * Lecture par les accesseurs typés du record ; une valeur stockée sous un autre type
+     * que son entrée (ex : nombre en texte) est convertie depuis sa valeur brute, comme avant.
+     */
+    private static AvroConverter converter(final Entry entry, final boolean typed) {
+        final String name = entry.getName();
+
+        switch (entry.getType()) {
+            case INT: {
+                final RecordValues.IntReader read = RecordValues.intReader(name, typed);
+                return record -> {
+                    final OptionalInt value = read.read(record);
+                    return value.isPresent() ? value.getAsInt() : null;
+                };
+            }
+
+            case LONG: {
+                final RecordValues.LongReader read = RecordValues.longReader(name, typed);
+                return record -> {
+                    final OptionalLong value = read.read(record);
+                    return value.isPresent() ? value.getAsLong() : null;
+                };
+            }
+
+            case FLOAT: {
+                final RecordValues.DoubleReader read = RecordValues.floatReader(name, typed);
+                return record -> {
+                    final OptionalDouble value = read.read(record);
+                    return value.isPresent() ? (float) value.getAsDouble() : null;
+                };
+            }
+
+            case DOUBLE: {
+                final RecordValues.DoubleReader read = RecordValues.doubleReader(name, typed);
+                return record -> {
+                    final OptionalDouble value = read.read(record);
+                    return value.isPresent() ? value.getAsDouble() : null;
+                };
+            }
+
+            case BOOLEAN: {
+                final Function<Record, Optional<Boolean>> read = RecordValues.booleanReader(name, typed);
+                return record -> read.apply(record).orElse(null);
+            }
+
+            // timestamp-millis et decimal(38, 18) : mêmes valeurs que l'écriture directe
+            // (ZonedDateTime converti et non plus ignoré, DECIMAL en octets et non plus en texte)
+            case DATETIME: {
+                final RecordValues.LongReader read = RecordValues.epochMillisReader(name);
+                return record -> {
+                    final OptionalLong value = read.read(record);
+                    return value.isPresent() ? value.getAsLong() : null;
+                };
+            }
+
+            case DECIMAL: {
+                final Function<Record, byte[]> read = RecordValues.unscaledBytesReader(name, typed);
+                return record -> {
+                    final byte[] value = read.apply(record);
+                    return value == null ? null : ByteBuffer.wrap(value);
+                };
+            }
+
+            case BYTES: {
+                final Function<Record, byte[]> read = RecordValues.bytesReader(name, typed);
+                return record -> {
+                    final byte[] value = read.apply(record);
+                    return value == null ? null : ByteBuffer.wrap(value);
+                };
+            }
+
+            case STRING:
+            default:
+                return RecordValues.stringReader(name, typed)::apply;
         }
     }
 
     private void initWriter(Record firstRecord) throws IOException {
         ParquetOutputDataset ds = configuration.getDataset();
         String path = ds.getPath();
-        File f = new File(path);
 
+        if (configuration.isNativeWriter()) {
+            // Plan d'écriture compilé depuis le schéma du premier record, pour chaque fichier écrit
+            recordEntries = dataEntries(firstRecord.getSchema());
+            typedEntries = RecordValues.typedEntries(firstRecord, recordEntries);
+            parquetSchema = schemaService.buildParquetSchema(recordEntries);
+        } else {
+            avroSchema = schemaService.buildAvroSchema(dataEntries(firstRecord.getSchema()));
+        }
+
+        if (configuration.isPartitioned()) {
+            // Colonne absente : tous les records iraient dans la partition par défaut
+            for (String column : configuration.getPartitionColumns()) {
+                if (firstRecord.getSchema().getEntry(column) == null) {
+                    throw new IllegalStateException(Messages.errorPartitionColumnNotFound(column));
+                }
+            }
+            final File root = new File(path);
+            manifest = new OutputManifest(root);
+            output = new PartitionedWriter(root, configuration.getPartitionColumns(),
+                    (directory, relativeDirectory) -> RollingWriter.rolling(directory, relativeDirectory,
+                            this::openPart, configuration.getMaxBytesPerFile(), configuration.getMaxRowsPerFile(),
+                            configuration.getRowGroupsPerFile(), manifest),
+                    configuration.getMaxOpenWriters(), configuration.getWriterMemoryBudget(),
+                    (long) configuration.getWriteBufferSize() * (configuration.isWriteBehind() ? 2 : 1));
+            return;
+        }
+
+        if (configuration.isRolling()) {
+            manifest = new OutputManifest(new File(path));
+            output = RollingWriter.rolling(new File(path), "", this::openPart, configuration.getMaxBytesPerFile(),
+                    configuration.getMaxRowsPerFile(), configuration.getRowGroupsPerFile(), manifest);
+            return;
+        }
+
+        File f = new File(path);
         if (f.exists()) {
             if (!ds.isOverwrite()) {
                 throw new IllegalStateException(Messages.errorFileExistsAndOverwriteDisabled(path));
@@ -155,35 +286,153 @@ public class ParquetOutputProcessor implements Serializable {
                 throw new IllegalStateException(Messages.errorDeleteFailed(path));
             }
         }
+        output = RollingWriter.single(path, this::openPart);
+    }
+
+    /**
+     * Writer Parquet d'un fichier de sortie, selon le mode d'écriture.
+     */
+    private RollingWriter.PartWriter openPart(final String path) throws IOException {
+        File parent = new File(path).getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory: " + parent);
+        }
+
+        LocalOutputFile outputFile = new LocalOutputFile(path, configuration.getWriteBufferSize(),
+                configuration.isWriteBehind(), configuration.getFsyncPolicy());
+
+        if (configuration.isNativeWriter()) {
+            return RollingWriter.PartWriter.of(
+                    configure(new RecordWriteSupport.Builder(outputFile, recordEntries, typedEntries, parquetSchema)).build(),
+                    record -> record, outputFile);
+        }
+        return RollingWriter.PartWriter.of(
+                configure(AvroParquetWriter.<GenericRecord>builder(outputFile).withSchema(avroSchema)).build(),
+                this::toAvro, outputFile);
+    }
+
+    /**
+     * Entrées écrites dans les fichiers : les colonnes de partition sont portées par les répertoires.
+     */
+    private List<Entry> dataEntries(final org.talend.sdk.component.api.record.Schema schema) {
+        final List<String> partitionColumns = configuration.getPartitionColumns();
+        if (partitionColumns == null || partitionColumns.isEmpty()) {
+            return schema.getEntries();
+        }
+        final List<Entry> entries = new ArrayList<>();
+        for (Entry entry : schema.getEntries()) {
+            if (!partitionColumns.contains(entry.getName())) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Répertoire des fichiers part-NNNNN.parquet : les fichiers et répertoires de partitions (écriture partitionnée)
+     * d'une exécution précédente sont supprimés si l'écrasement est autorisé.
+     */
+    private void prepareDirectory(final File directory) {
+        final String path = directory.getPath();
+        if (directory.isFile()) {
+            if (!configuration.getDataset().isOverwrite()) {
+                throw new IllegalStateException(Messages.errorFileExistsAndOverwriteDisabled(path));
+            }
+            if (!directory.delete()) {
+                throw new IllegalStateException(Messages.errorDeleteFailed(path));
+            }
+        }
+
+        final File[] previous = directory.listFiles((dir, name) ->
+                (name.startsWith("part-") && name.endsWith(".parquet")) || name.startsWith(OutputManifest.FILE_NAME)
+                        || isPartitionDirectory(new File(dir, name)));
+        if (previous != null && previous.length > 0) {
+            if (!configuration.getDataset().isOverwrite()) {
+                throw new IllegalStateException(Messages.errorFileExistsAndOverwriteDisabled(path));
+            }
+            for (File file : previous) {
+                delete(file);
+            }
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException(Messages.errorParquetWriter() + " : " + path);
+        }
+    }
+
+    /**
+     * Répertoire {@code colonne=valeur} d'une des colonnes de partition configurées ;
+     * les autres répertoires ne sont jamais supprimés.
+     */
+    private boolean isPartitionDirectory(final File file) {
+        if (!configuration.isPartitioned() || !file.isDirectory()) {
+            return false;
+        }
+        for (String column : configuration.getPartitionColumns()) {
+            if (file.getName().startsWith(column + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        avroSchema = schemaService.buildAvroSchema(firstRecord.getSchema());
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete()) {
+            throw new IllegalStateException(Messages.errorDeleteFailed(file.getPath()));
+        }
+    }
 
-        CompressionCodecName codec = switch (ds.getCompression()) {
+    /**
+     * Options communes aux deux modes d'écriture : compression, tailles, dictionnaire, bloom filters.
+     */
+    private <B extends ParquetWriter.Builder<?, B>> B configure(final B builder) {
+        CompressionCodecName codec = switch (configuration.getDataset().getCompression()) {
             case GZIP -> CompressionCodecName.GZIP;
             case SNAPPY -> CompressionCodecName.SNAPPY;
             default -> CompressionCodecName.UNCOMPRESSED;
         };
 
-        LocalOutputFile outputFile = new LocalOutputFile(path);
-
-        writer = AvroParquetWriter.<GenericRecord>builder(outputFile)
-                .withSchema(avroSchema)
-                .withCompressionCodec(codec)
+        builder.withCompressionCodec(codec)
                 .withRowGroupSize(configuration.getRowGroupSize())
                 .withPageSize(configuration.getPageSize())
                 .withDictionaryPageSize(configuration.getDictionaryPageSize())
                 .withDictionaryEncoding(configuration.isEnableDictionary())
-                .build();
+                // Fichier local : pas d'alignement des row groups sur des blocs HDFS
+                .withMaxPaddingSize(0);
+
+        // Bloom filters par colonne
+        for (BloomFilterColumn bloom : configuration.getBloomFilterColumns()) {
+            builder.withBloomFilterEnabled(bloom.getColumn(), true);
+            if (bloom.getExpectedDistinctValues() > 0) {
+                builder.withBloomFilterNDV(bloom.getColumn(), bloom.getExpectedDistinctValues());
+            }
+            if (bloom.getFalsePositiveProbability() > 0) {
+                builder.withBloomFilterFPP(bloom.getColumn(), bloom.getFalsePositiveProbability());
+            }
+        }
 
+        return builder;
     }
 
     @PreDestroy
     public void release() {
         try {
-            if (writer != null) {
-                writer.close();
+            if (output != null) {
+                output.close();
             }
-        } catch (IOException ignored) {
+            // Les fichiers finalisés restent listés, sans annoncer une liste définitive
+            if (manifest != null && !failed) {
+                manifest.complete();
+            }
+        } catch (IOException e) {
+            // Footer ou manifeste non écrit : le fichier de sortie est inutilisable
+            throw new IllegalStateException(Messages.errorParquetWriter(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Écriture partitionnée à la Hive : chaque record est routé vers le répertoire
+ * {@code col1=valeur/col2=valeur/} de ses colonnes de partition, qui a ses propres fichiers part-NNNNN.parquet.
+ * <p>
+ * Chaque fichier ouvert garde en mémoire son row group en cours (jusqu'à rowGroupSize) et son tampon
+ * d'écriture. Le nombre de fichiers ouverts est donc borné, ainsi que la mémoire qu'ils occupent :
+ * au-delà, le fichier de la partition utilisée le moins récemment est finalisé ; la partition
+ * reprend dans un nouveau fichier si elle reçoit d'autres records.
+ */
+final class PartitionedWriter implements RecordSink {
+
+    @FunctionalInterface
+    interface PartitionFactory {
+
+        /**
+         * @param relativeDirectory répertoire de la partition relatif à la racine, terminé par /
+         */
+        RollingWriter create(File directory, String relativeDirectory);
+    }
+
+    // Valeur de partition nulle ou vide (convention Hive)
+    static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+
+    // La mémoire des fichiers ouverts n'est évaluée que toutes les N lignes
+    private static final int MEMORY_CHECK_INTERVAL = 100;
+
+    private final File root;
+    private final String[] columns;
+    private final PartitionFactory factory;
+    private final int maxOpenWriters;
+    private final long memoryBudget;
+    // Mémoire fixe d'un fichier ouvert (tampon(s) d'écriture)
+    private final long writerOverhead;
+    // Mise en texte des valeurs de partition, selon le type de leur entrée dans formatSchema
+    private Schema formatSchema;
+    private Function<Record, String>[] formatters;
+
+    // Toutes les partitions rencontrées (la numérotation de leurs fichiers continue après une éviction)
+    private final Map<String, RollingWriter> partitions = new HashMap<>();
+    // Partitions dont un fichier est ouvert, de la moins récemment utilisée à la plus récente
+    private final LinkedHashMap<String, RollingWriter> open = new LinkedHashMap<>(16, 0.75f, true);
+    private long rows;
+
+    PartitionedWriter(final File root, final List<String> columns, final PartitionFactory factory,
+                      final int maxOpenWriters, final long memoryBudget, final long writerOverhead) {
+        this.root = root;
+        this.columns = columns.toArray(new String[0]);
+        this.factory = factory;
+        this.maxOpenWriters = Math.max(1, maxOpenWriters);
+        this.memoryBudget = memoryBudget;
+        this.writerOverhead = writerOverhead;
+    }
+
+    @Override
+    public void write(final Record record) throws IOException {
+        final String key = partition(record);
+
+        RollingWriter writer = open.get(key);
+        if (writer == null) {
+            writer = partitions.computeIfAbsent(key, k -> factory.create(new File(root, k), k));
+            // Place pour un fichier de plus
+            while (open.size() >= maxOpenWriters) {
+                evictEldest();
+            }
+            open.put(key, writer);
+        }
+
+        writer.write(record);
+        if (!writer.isOpen()) {
+            // fichier finalisé par ses limites de taille
+            open.remove(key);
+        }
+
+        if (memoryBudget > 0 && ++rows % MEMORY_CHECK_INTERVAL == 0) {
+            enforceMemoryBudget(key);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (RollingWriter writer : open.values()) {
+            try {
+                writer.finish();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        open.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Finalise les fichiers les moins récemment utilisés tant que la mémoire estimée dépasse le budget ;
+     * la partition courante est conservée. Un fichier ouvert occupe son row group en cours, plus ses
+     * tampons d'écriture comptés une fois, à leur capacité.
+     */
+    private void enforceMemoryBudget(final String current) throws IOException {
+        long used = 0L;
+        for (RollingWriter writer : open.values()) {
+            used += writer.bufferedBytes() + writerOverhead;
+        }
+
+        final Iterator<Map.Entry<String, RollingWriter>> eldest = new ArrayList<>(open.entrySet()).iterator();
+        while (used > memoryBudget && eldest.hasNext()) {
+            final Map.Entry<String, RollingWriter> entry = eldest.next();
+            if (entry.getKey().equals(current)) {
+                continue;
+            }
+            used -= entry.getValue().bufferedBytes() + writerOverhead;
+            entry.getValue().finish();
+            open.remove(entry.getKey());
+        }
+    }
+
+    private void evictEldest() throws IOException {
+        final Iterator<RollingWriter> eldest = open.values().iterator();
+        final RollingWriter writer = eldest.next();
+        eldest.remove();
+        writer.finish();
+    }
+
+    /**
+     * Répertoire relatif de la partition du record : {@code col1=valeur/col2=valeur/}.
+     */
+    private String partition(final Record record) {
+        final Schema schema = record.getSchema();
+        if (schema != formatSchema && !schema.equals(formatSchema)) {
+            compileFormatters(schema);
+        }
+
+        final StringBuilder key = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            final String text = formatters[i].apply(record);
+            key.append(escape(columns[i])).append('=')
+                    .append(text == null || text.isEmpty() ? DEFAULT_PARTITION : escape(text))
+                    .append('/');
+        }
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compileFormatters(final Schema schema) {
+        final Function<Record, String>[] compiled = new Function[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            final Schema.Entry entry = schema.getEntry(columns[i]);
+            compiled[i] = formatter(columns[i], entry == null ? Schema.Type.STRING : entry.getType());
+        }
+        this.formatters = compiled;
+        this.formatSchema = schema;
+    }
+
+    /**
+     * Valeur de partition en texte, null si absente : date / heure ISO-8601 (le record stocke un epoch millis),
+     * décimal sans notation scientifique.
+     */
+    private static Function<Record, String> formatter(final String column, final Schema.Type type) {
+        switch (type) {
+            case DATETIME:
+                return record -> {
+                    final Object value = record.get(Object.class, column);
+                    return value == null ? null : DateTimeFormatter.ISO_INSTANT.format(
+                            Instant.ofEpochMilli(RecordValues.toEpochMillis(value)));
+                };
+            case DECIMAL:
+                return record -> {
+                    final Object value = record.get(Object.class, column);
+                    return value == null ? null
+                            : value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                };
+            default:
+                return record -> {
+                    final Object value = record.get(Object.class, column);
+                    return value == null ? null : value.toString();
+                };
+        }
+    }
+
+    /**
+     * Échappement des noms de répertoires de Hive : caractères spéciaux et de contrôle en %XX.
+     */
+    static String escape(final String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x20 || c == 0x7F || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                escaped.append('%').append(String.format("%02X", (int) c));
+            } else if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import org.talend.sdk.component.api.record.Record;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination des records du composant : fichier(s) d'un répertoire, ou répertoires de partitions.
+ */
+interface RecordSink extends Closeable {
+
+    void write(Record record) throws IOException;
+}
@@ -0,0 +1,241 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import com.talaxie.components.service.ParquetOutputSchemaService;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+/**
+ * Conversions des valeurs Talend vers leur représentation Parquet, communes à l'écriture Avro
+ * et à l'écriture directe pour que les deux modes produisent les mêmes fichiers.
+ */
+final class RecordValues {
+
+    private RecordValues() {
+    }
+
+    // ============================================================
+    // Lecture des entrées, choisie une fois par entrée à la compilation du plan d'écriture :
+    // accesseur typé du record quand la valeur stockée a le type de l'entrée, sinon conversion
+    // depuis la valeur brute (ex : nombre stocké en texte)
+    // ============================================================
+
+    @FunctionalInterface
+    interface IntReader {
+
+        OptionalInt read(Record record);
+    }
+
+    @FunctionalInterface
+    interface LongReader {
+
+        OptionalLong read(Record record);
+    }
+
+    @FunctionalInterface
+    interface DoubleReader {
+
+        OptionalDouble read(Record record);
+    }
+
+    /**
+     * Pour chaque entrée, vrai si la valeur du record modèle est absente ou stockée dans le type Java
+     * de l'entrée : les accesseurs typés s'appliquent alors aux records suivants de même schéma.
+     */
+    static boolean[] typedEntries(final Record sample, final List<Schema.Entry> entries) {
+        final boolean[] typed = new boolean[entries.size()];
+        for (int i = 0; i < typed.length; i++) {
+            final Schema.Entry entry = entries.get(i);
+            final Object value = sample.get(Object.class, entry.getName());
+            typed[i] = value == null || storedType(entry.getType()).isInstance(value);
+        }
+        return typed;
+    }
+
+    private static Class<?> storedType(final Schema.Type type) {
+        return switch (type) {
+            case INT -> Integer.class;
+            case LONG -> Long.class;
+            case FLOAT -> Float.class;
+            case DOUBLE -> Double.class;
+            case BOOLEAN -> Boolean.class;
+            case DECIMAL -> BigDecimal.class;
+            case BYTES -> byte[].class;
+            // DATETIME toujours lu brut, voir epochMillisReader
+            default -> String.class;
+        };
+    }
+
+    static IntReader intReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalInt(name);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? OptionalInt.empty() : OptionalInt.of(value instanceof Number number
+                    ? number.intValue() : Integer.parseInt(value.toString()));
+        };
+    }
+
+    static LongReader longReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalLong(name);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? OptionalLong.empty() : OptionalLong.of(value instanceof Number number
+                    ? number.longValue() : Long.parseLong(value.toString()));
+        };
+    }
+
+    static DoubleReader floatReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalFloat(name);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? OptionalDouble.empty() : OptionalDouble.of(value instanceof Number number
+                    ? number.floatValue() : Float.parseFloat(value.toString()));
+        };
+    }
+
+    static DoubleReader doubleReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalDouble(name);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? OptionalDouble.empty() : OptionalDouble.of(value instanceof Number number
+                    ? number.doubleValue() : Double.parseDouble(value.toString()));
+        };
+    }
+
+    static Function<Record, Optional<Boolean>> booleanReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalBoolean(name);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? Optional.empty() : Optional.of(Boolean.parseBoolean(value.toString()));
+        };
+    }
+
+    /**
+     * DATETIME en timestamp-millis (UTC), toujours depuis la valeur brute : le record stocke
+     * déjà un epoch millis, que l'accesseur typé repasserait par un ZonedDateTime.
+     */
+    static LongReader epochMillisReader(final String name) {
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? OptionalLong.empty() : OptionalLong.of(toEpochMillis(value));
+        };
+    }
+
+    /**
+     * DECIMAL en valeur non mise à l'échelle, null si absente.
+     */
+    static Function<Record, byte[]> unscaledBytesReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> {
+                final BigDecimal value = record.getOptionalDecimal(name).orElse(null);
+                return value == null ? null : toUnscaledBytes(value);
+            };
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? null : toUnscaledBytes(value);
+        };
+    }
+
+    /**
+     * BYTES, ou texte encodé en UTF-8 ; null si absent.
+     */
+    static Function<Record, byte[]> bytesReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalBytes(name).orElse(null);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? null : value instanceof byte[] bytes
+                    ? bytes : value.toString().getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    static Function<Record, String> stringReader(final String name, final boolean typed) {
+        if (typed) {
+            return record -> record.getOptionalString(name).orElse(null);
+        }
+        return record -> {
+            final Object value = record.get(Object.class, name);
+            return value == null ? null : value.toString();
+        };
+    }
+
+    /**
+     * DATETIME → timestamp-millis (UTC). Les dates / heures locales sont lues dans le fuseau de la JVM.
+     */
+    static long toEpochMillis(final Object value) {
+        if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.toInstant().toEpochMilli();
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof Instant instant) {
+            return instant.toEpochMilli();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant().toEpochMilli();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (value instanceof LocalDate date) {
+            return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (value instanceof Date date) {
+            return date.getTime();
+        }
+        throw new IllegalArgumentException("Unsupported DATETIME value: " + value.getClass().getName());
+    }
+
+    /**
+     * DECIMAL → valeur non mise à l'échelle en complément à deux, dans le decimal(38, 18) des colonnes écrites.
+     * Aucun arrondi : une valeur qui a plus de 18 décimales significatives ou plus de 20 chiffres entiers
+     * est refusée plutôt que d'écrire une autre valeur que celle du record.
+     */
+    static byte[] toUnscaledBytes(final Object value) {
+        final BigDecimal decimal = value instanceof BigDecimal big ? big : new BigDecimal(value.toString());
+        final BigDecimal scaled;
+        try {
+            scaled = decimal.setScale(ParquetOutputSchemaService.DECIMAL_SCALE, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("DECIMAL value has more than " + ParquetOutputSchemaService.DECIMAL_SCALE
+                    + " fraction digits: " + decimal.toPlainString(), e);
+        }
+        if (scaled.precision() > ParquetOutputSchemaService.DECIMAL_PRECISION) {
+            throw new IllegalArgumentException("DECIMAL value exceeds precision "
+                    + ParquetOutputSchemaService.DECIMAL_PRECISION + ": " + decimal.toPlainString());
+        }
+        return scaled.unscaledValue().toByteArray();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import com.talaxie.components.service.ParquetOutputSchemaService;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+/**
+ * Écriture directe des records Talend dans le {@link RecordConsumer} Parquet, sans passer par Avro.
+ * Le plan d'écriture (un {@link FieldWriter} par colonne, typé selon l'entrée et avec son index) est construit
+ * une fois depuis le schéma Talend ; chaque record est ensuite écrit champ par champ par les accesseurs typés
+ * du record, sans objet intermédiaire.
+ */
+final class RecordWriteSupport extends WriteSupport<Record> {
+
+    private final MessageType schema;
+    private final FieldWriter[] fields;
+    private RecordConsumer consumer;
+
+    /**
+     * @param entries entrées Talend écrites, dans l'ordre des champs de {@code schema}
+     * @param typed   entrées lues par les accesseurs typés, voir {@link RecordValues#typedEntries}
+     */
+    RecordWriteSupport(final List<Schema.Entry> entries, final boolean[] typed, final MessageType schema) {
+        this.schema = schema;
+        this.fields = new FieldWriter[entries.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fieldWriter(entries.get(i), i, typed[i]);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "talaxie";
+    }
+
+    @Override
+    public WriteContext init(final Configuration configuration) {
+        return new WriteContext(schema, Collections.emptyMap());
+    }
+
+    @Override
+    public void prepareForWrite(final RecordConsumer recordConsumer) {
+        this.consumer = recordConsumer;
+    }
+
+    @Override
+    public void write(final Record record) {
+        consumer.startMessage();
+        for (FieldWriter field : fields) {
+            field.write(record, consumer);
+        }
+        consumer.endMessage();
+    }
+
+    /**
+     * ParquetWriter écrivant des records Talend avec {@link RecordWriteSupport}.
+     */
+    static final class Builder extends ParquetWriter.Builder<Record, Builder> {
+
+        private final List<Schema.Entry> entries;
+        private final boolean[] typed;
+        private final MessageType schema;
+
+        Builder(final OutputFile file, final List<Schema.Entry> entries, final boolean[] typed, final MessageType schema) {
+            super(file);
+            this.entries = entries;
+            this.typed = typed;
+            this.schema = schema;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Record> getWriteSupport(final Configuration conf) {
+            return new RecordWriteSupport(entries, typed, schema);
+        }
+    }
+
+    // ============================================================
+    // Plan d'écriture
+    // ============================================================
+
+    /**
+     * Écriture d'un champ du record : lecture typée selon l'entrée, puis valeur ajoutée au consumer.
+     * Un champ optionnel nul n'est pas écrit.
+     */
+    @FunctionalInterface
+    private interface FieldWriter {
+
+        void write(Record record, RecordConsumer consumer);
+    }
+
+    /**
+     * Mêmes conversions que l'écriture Avro, vers les types de {@link ParquetOutputSchemaService#buildParquetSchema}.
+     */
+    private static FieldWriter fieldWriter(final Schema.Entry entry, final int index, final boolean typed) {
+        final String name = entry.getName();
+
+        switch (entry.getType()) {
+            case INT: {
+                final RecordValues.IntReader read = RecordValues.intReader(name, typed);
+                return (record, consumer) -> {
+                    final OptionalInt value = read.read(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addInteger(value.getAsInt());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case LONG: {
+                final RecordValues.LongReader read = RecordValues.longReader(name, typed);
+                return (record, consumer) -> {
+                    final OptionalLong value = read.read(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addLong(value.getAsLong());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case FLOAT: {
+                final RecordValues.DoubleReader read = RecordValues.floatReader(name, typed);
+                return (record, consumer) -> {
+                    final OptionalDouble value = read.read(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addFloat((float) value.getAsDouble());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case DOUBLE: {
+                final RecordValues.DoubleReader read = RecordValues.doubleReader(name, typed);
+                return (record, consumer) -> {
+                    final OptionalDouble value = read.read(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addDouble(value.getAsDouble());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case BOOLEAN: {
+                final Function<Record, Optional<Boolean>> read = RecordValues.booleanReader(name, typed);
+                return (record, consumer) -> {
+                    final Optional<Boolean> value = read.apply(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addBoolean(value.get());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case DATETIME: {
+                final RecordValues.LongReader read = RecordValues.epochMillisReader(name);
+                return (record, consumer) -> {
+                    final OptionalLong value = read.read(record);
+                    if (value.isPresent()) {
+                        consumer.startField(name, index);
+                        consumer.addLong(value.getAsLong());
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+
+            case DECIMAL: {
+                final Function<Record, byte[]> read = RecordValues.unscaledBytesReader(name, typed);
+                return (record, consumer) -> addBinary(consumer, name, index, read.apply(record));
+            }
+
+            case BYTES: {
+                final Function<Record, byte[]> read = RecordValues.bytesReader(name, typed);
+                return (record, consumer) -> addBinary(consumer, name, index, read.apply(record));
+            }
+
+            case STRING:
+            default: {
+                final Function<Record, String> read = RecordValues.stringReader(name, typed);
+                return (record, consumer) -> {
+                    final String value = read.apply(record);
+                    if (value != null) {
+                        consumer.startField(name, index);
+                        consumer.addBinary(Binary.fromString(value));
+                        consumer.endField(name, index);
+                    }
+                };
+            }
+        }
+    }
+
+    private static void addBinary(final RecordConsumer consumer, final String name, final int index, final byte[] value) {
+        if (value != null) {
+            consumer.startField(name, index);
+            consumer.addBinary(Binary.fromConstantByteArray(value));
+            consumer.endField(name, index);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.output;
+
+import com.talaxie.components.service.LocalOutputFile;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.talend.sdk.component.api.record.Record;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Écriture d'un flux de records dans une suite de fichiers {@code part-00000.parquet}, {@code part-00001.parquet}...
+ * Un fichier est fermé (footer écrit) dès qu'il atteint une des limites, puis déclaré au manifeste :
+ * il est lisible pendant l'écriture des suivants. Sans limite, un seul fichier est écrit au chemin donné.
+ */
+final class RollingWriter implements RecordSink {
+
+    /**
+     * Writer Parquet d'un fichier, alimenté en records Talend.
+     */
+    interface PartWriter extends Closeable {
+
+        void write(Record record) throws IOException;
+
+        /**
+         * Octets écrits plus octets encore en mémoire (row group en cours).
+         */
+        long getDataSize();
+
+        /**
+         * Row groups écrits dans le fichier (row group en cours non compris).
+         */
+        int getRowGroupCount();
+
+        /**
+         * Octets du row group en cours, encore en mémoire dans le writer Parquet.
+         */
+        long getRowGroupBufferedSize();
+
+        static <T> PartWriter of(final ParquetWriter<T> writer, final Function<Record, T> converter,
+                                 final LocalOutputFile file) {
+            return new PartWriter() {
+
+                // Position du fichier après le magic : chaque avancée pendant un write() est un row group écrit
+                private long position = Math.max(file.getPos(), ParquetFileWriter.MAGIC.length);
+                private int rowGroups;
+
+                @Override
+                public void write(final Record record) throws IOException {
+                    writer.write(converter.apply(record));
+                    final long next = file.getPos();
+                    if (next != position) {
+                        position = next;
+                        rowGroups++;
+                        file.rowGroupWritten();
+                    }
+                }
+
+                @Override
+                public long getDataSize() {
+                    return writer.getDataSize();
+                }
+
+                @Override
+                public int getRowGroupCount() {
+                    return rowGroups;
+                }
+
+                @Override
+                public long getRowGroupBufferedSize() {
+                    // octets déjà transmis au flux (tampon d'écriture compris) exclus
+                    return Math.max(0L, writer.getDataSize() - file.getPos());
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface PartWriterFactory {
+
+        PartWriter open(String path) throws IOException;
+    }
+
+    // getDataSize() parcourt toutes les colonnes : la taille n'est contrôlée que toutes les N lignes
+    private static final int SIZE_CHECK_INTERVAL = 100;
+
+    private final String singlePath;
+    private final File directory;
+    private final String relativeDirectory;
+    private final PartWriterFactory factory;
+    private final long maxBytes;
+    private final long maxRows;
+    private final int maxRowGroups;
+    private final OutputManifest manifest;
+
+    private PartWriter current;
+    private File currentFile;
+    private long rows;
+    private int nextPart;
+
+    private RollingWriter(final String singlePath, final File directory, final String relativeDirectory,
+                          final PartWriterFactory factory, final long maxBytes, final long maxRows,
+                          final int maxRowGroups, final OutputManifest manifest) {
+        this.singlePath = singlePath;
+        this.directory = directory;
+        this.relativeDirectory = relativeDirectory;
+        this.factory = factory;
+        this.maxBytes = maxBytes;
+        this.maxRows = maxRows;
+        this.maxRowGroups = maxRowGroups;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Un seul fichier, au chemin donné.
+     */
+    static RollingWriter single(final String path, final PartWriterFactory factory) {
+        return new RollingWriter(path, null, null, factory, 0L, 0L, 0, null);
+    }
+
+    /**
+     * Fichiers numérotés dans {@code directory}, déclarés au manifeste sous {@code relativeDirectory}.
+     *
+     * @param maxBytes taille max d'un fichier (0 : illimitée)
+     * @param maxRows  nombre max de lignes d'un fichier (0 : illimité)
+     * @param maxRowGroups nombre max de row groups d'un fichier, quelle que soit leur taille compressée (0 : illimité)
+     */
+    static RollingWriter rolling(final File directory, final String relativeDirectory, final PartWriterFactory factory,
+                                 final long maxBytes, final long maxRows, final int maxRowGroups,
+                                 final OutputManifest manifest) {
+        return new RollingWriter(null, directory, relativeDirectory, factory, maxBytes, maxRows, maxRowGroups, manifest);
+    }
+
+    @Override
+    public void write(final Record record) throws IOException {
+        if (current == null) {
+            open();
+        }
+        current.write(record);
+        rows++;
+
+        if ((maxRows > 0 && rows >= maxRows)
+                || (maxRowGroups > 0 && current.getRowGroupCount() >= maxRowGroups)
+                || (maxBytes > 0 && rows % SIZE_CHECK_INTERVAL == 0 && current.getDataSize() >= maxBytes)) {
+            finish();
+        }
+    }
+
+    /**
+     * Octets du row group en cours du fichier ouvert, 0 si aucun fichier n'est ouvert.
+     * Le tampon d'écriture n'est pas compris : sa capacité est comptée à part par l'appelant.
+     */
+    long bufferedBytes() {
+        return current == null ? 0L : current.getRowGroupBufferedSize();
+    }
+
+    boolean isOpen() {
+        return current != null;
+    }
+
+    /**
+     * Ferme le fichier en cours ; le prochain record ouvre le fichier suivant.
+     */
+    void finish() throws IOException {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } finally {
+            current = null;
+        }
+        if (manifest != null) {
+            manifest.add(relativeDirectory + currentFile.getName(), rows, currentFile.length());
+        }
+        rows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void open() throws IOException {
+        if (singlePath != null) {
+            currentFile = new File(singlePath);
+        } else {
+            currentFile = new File(directory, String.format("part-%05d.parquet", nextPart++));
+        }
+        current = factory.open(currentFile.getPath());
+    }
+}
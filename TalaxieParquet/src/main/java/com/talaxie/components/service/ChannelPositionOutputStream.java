@@ -0,0 +1,239 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import org.apache.parquet.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Flux d'écriture sur un FileChannel, à travers un grand tampon direct.
+ * Les petites écritures de l'encodeur Parquet (write(int), en-têtes de pages) sont regroupées :
+ * un appel système par tampon plein au lieu d'un par écriture.
+ * <ul>
+ *     <li>écriture différée (optionnelle) : un second tampon est rempli pendant qu'un thread
+ *     dédié écrit le précédent ;</li>
+ *     <li>fsync selon la {@link FsyncPolicy} : jamais, à la fermeture, ou à chaque row group
+ *     (signalé par {@link #rowGroupWritten()}).</li>
+ * </ul>
+ */
+public class ChannelPositionOutputStream extends PositionOutputStream {
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsync;
+    private ByteBuffer buffer;
+    private long position;
+    private boolean closed;
+
+    // === Écriture différée (null : écriture synchrone) ===
+    private final Thread writer;
+    // tampon vide disponible, et tampon en cours d'écriture par le thread
+    private ByteBuffer spare;
+    private ByteBuffer pending;
+    private boolean stopping;
+    private IOException failure;
+
+    public ChannelPositionOutputStream(final FileChannel channel, final String name, final int bufferSize,
+                                       final boolean writeBehind, final FsyncPolicy fsync) {
+        this.channel = channel;
+        this.fsync = fsync == null ? FsyncPolicy.NONE : fsync;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+
+        if (writeBehind) {
+            this.spare = ByteBuffer.allocateDirect(bufferSize);
+            this.writer = new Thread(this::run, "parquet-write-" + name);
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flushBuffer();
+        }
+        buffer.put((byte) b);
+        position++;
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        // Écriture synchrone d'un bloc plus grand que le tampon : sans copie intermédiaire
+        if (writer == null && len >= buffer.capacity()) {
+            flushBuffer();
+            writeFully(ByteBuffer.wrap(b, off, len));
+            position += len;
+            return;
+        }
+
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            final int count = Math.min(remaining, buffer.remaining());
+            buffer.put(b, offset, count);
+            offset += count;
+            remaining -= count;
+        }
+        position += len;
+    }
+
+    /**
+     * Transmet le tampon au système (sans fsync).
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        awaitWriter();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            if (fsync != FsyncPolicy.NONE) {
+                channel.force(true);
+            }
+        } finally {
+            stopWriter();
+            channel.close();
+        }
+    }
+
+    /**
+     * Row group entièrement transmis par le writer Parquet : fsync en {@link FsyncPolicy#PER_ROW_GROUP}.
+     */
+    public void rowGroupWritten() throws IOException {
+        if (fsync == FsyncPolicy.PER_ROW_GROUP) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        if (writer == null) {
+            writeFully(buffer);
+            buffer.clear();
+        } else {
+            buffer = handOff(buffer);
+        }
+    }
+
+    private void writeFully(final ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    // ============================================================
+    // Écriture différée
+    // ============================================================
+
+    /**
+     * Confie le tampon plein au thread d'écriture et retourne le tampon libre.
+     */
+    private synchronized ByteBuffer handOff(final ByteBuffer full) throws IOException {
+        awaitWriter();
+        pending = full;
+        notifyAll();
+        final ByteBuffer next = spare;
+        spare = null;
+        return next;
+    }
+
+    /**
+     * Attend la fin de l'écriture en cours et remonte son éventuelle erreur.
+     */
+    private synchronized void awaitWriter() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            while (pending != null) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Parquet write", e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void run() {
+        while (true) {
+            final ByteBuffer data;
+            synchronized (this) {
+                try {
+                    while (pending == null && !stopping) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pending == null) {
+                    return;
+                }
+                data = pending;
+            }
+
+            IOException error = null;
+            try {
+                writeFully(data);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (this) {
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                data.clear();
+                spare = data;
+                pending = null;
+                notifyAll();
+            }
+        }
+    }
+
+    private void stopWriter() {
+        if (writer == null) {
+            return;
+        }
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+/**
+ * Synchronisation sur disque (fsync) des fichiers Parquet écrits.
+ */
+public enum FsyncPolicy {
+    // Laissée au système (page cache)
+    NONE,
+    // Une fois, à la fermeture du fichier
+    ON_CLOSE,
+    // À chaque row group écrit (signalé par le writer du fichier), puis à la fermeture
+    PER_ROW_GROUP
+}
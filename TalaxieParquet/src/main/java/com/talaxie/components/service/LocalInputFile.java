@@ -7,15 +7,35 @@ import org.apache.parquet.io.InputFile;
 import org.apache.parquet.io.SeekableInputStream;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 public class LocalInputFile implements InputFile {
 
+    // Taille max d'un segment projeté (limite d'un ByteBuffer)
+    private static final long SEGMENT_SIZE = Integer.MAX_VALUE;
+
     private final File file;
+    private final ReadMode mode;
+    private final long segmentSize;
 
     public LocalInputFile(String path) {
+        this(path, ReadMode.CHANNEL);
+    }
+
+    public LocalInputFile(String path, ReadMode mode) {
+        this(path, mode, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize taille des segments projetés en mode {@link ReadMode#MEMORY_MAPPED}
+     */
+    LocalInputFile(String path, ReadMode mode, long segmentSize) {
         this.file = new File(path);
+        this.mode = mode == null ? ReadMode.CHANNEL : mode;
+        this.segmentSize = segmentSize;
         if (!file.exists()) {
             throw new IllegalStateException("Parquet file not found: " + path);
         }
@@ -28,6 +48,22 @@ public class LocalInputFile implements InputFile {
 
     @Override
     public SeekableInputStream newStream() throws IOException {
-        return new LocalSeekableInputStream(new FileInputStream(file).getChannel());
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        if (mode != ReadMode.MEMORY_MAPPED) {
+            return new LocalSeekableInputStream(channel);
+        }
+
+        // La projection reste valide après fermeture du channel
+        try (channel) {
+            long length = channel.size();
+            int count = (int) ((length + segmentSize - 1) / segmentSize);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, length - start));
+            }
+            return new MappedSeekableInputStream(segments, segmentSize, length);
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,80 +7,81 @@ import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.io.PositionOutputStream;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Implémentation locale d’OutputFile (sans Hadoop),
  * utilisable directement par AvroParquetWriter.
  * Pour éviter les collisions de librairies dans Talaxie
+ * <p>
+ * L'écriture passe par un FileChannel et un grand tampon direct ({@link ChannelPositionOutputStream}).
  */
 public class LocalOutputFile implements OutputFile {
 
+    // Taille par défaut du tampon d'écriture : 8 Mo
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024 * 1024;
+
     private final File file;
+    private final int bufferSize;
+    private final boolean writeBehind;
+    private final FsyncPolicy fsync;
+    private ChannelPositionOutputStream stream;
 
     public LocalOutputFile(final String path) {
+        this(path, DEFAULT_BUFFER_SIZE, false, FsyncPolicy.NONE);
+    }
+
+    public LocalOutputFile(final String path, final int bufferSize, final boolean writeBehind, final FsyncPolicy fsync) {
         this.file = new File(path);
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+        this.writeBehind = writeBehind;
+        this.fsync = fsync == null ? FsyncPolicy.NONE : fsync;
     }
 
     @Override
     public PositionOutputStream create(long blockSizeHint) throws IOException {
-        return new LocalPositionOutputStream(new FileOutputStream(file, false));
+        return createOrOverwrite(blockSizeHint);
     }
 
     @Override
     public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
-        return new LocalPositionOutputStream(new FileOutputStream(file, false));
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        stream = new ChannelPositionOutputStream(channel, file.getName(), bufferSize, writeBehind, fsync);
+        return stream;
     }
 
+    /**
+     * Octets transmis par le writer Parquet (tampon d'écriture compris), 0 avant la création du flux.
+     * Les pages d'un row group restent en mémoire jusqu'à son écriture : après le magic {@code PAR1},
+     * la position n'avance que lorsqu'un row group est écrit, puis pour le footer.
+     */
+    public long getPos() {
+        return stream == null ? 0L : stream.getPos();
+    }
+
+    /**
+     * Appelé par le writer du fichier à chaque row group écrit (avancée de {@link #getPos()}).
+     */
+    public void rowGroupWritten() throws IOException {
+        if (stream != null) {
+            stream.rowGroupWritten();
+        }
+    }
+
+    /**
+     * Parquet transmet alors la taille des row groups à create() ; l'alignement des row groups
+     * sur des blocs (padding HDFS) est désactivé côté writer.
+     */
     @Override
     public boolean supportsBlockSize() {
-        return false;
+        return true;
     }
 
     @Override
     public long defaultBlockSize() {
         return 0;
     }
-
-
-    // ---- Implémentation du PositionOutputStream --------------------------
-
-    private static class LocalPositionOutputStream extends PositionOutputStream {
-
-        private final FileOutputStream out;
-        private long pos = 0;
-
-        LocalPositionOutputStream(final FileOutputStream out) {
-            this.out = out;
-        }
-
-        @Override
-        public long getPos() {
-            return pos;
-        }
-
-        @Override
-        public void write(int b) throws IOException {
-            out.write(b);
-            pos++;
-        }
-
-        @Override
-        public void write(byte[] b) throws IOException {
-            out.write(b);
-            pos += b.length;
-        }
-
-        @Override
-        public void write(byte[] b, int off, int len) throws IOException {
-            out.write(b, off, len);
-            pos += len;
-        }
-
-        @Override
-        public void close() throws IOException {
-            out.close();
-        }
-    }
-}
\ No newline at end of file
+}
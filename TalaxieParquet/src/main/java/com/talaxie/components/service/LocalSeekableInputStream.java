@@ -5,13 +5,21 @@ package com.talaxie.components.service;
 
 import org.apache.parquet.io.SeekableInputStream;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
+/**
+ * Flux positionnable sur un FileChannel local.
+ * Les lectures sont positionnelles (pread) : un seek ne coûte aucun appel système,
+ * et chaque lecture de column chunk se fait en un seul appel pour toute la plage demandée.
+ */
 public class LocalSeekableInputStream extends SeekableInputStream {
 
     private final FileChannel channel;
+    private final ByteBuffer singleByte = ByteBuffer.allocate(1);
+    private long position;
 
     public LocalSeekableInputStream(FileChannel channel) {
         this.channel = channel;
@@ -19,29 +27,40 @@ public class LocalSeekableInputStream extends SeekableInputStream {
 
     @Override
     public long getPos() throws IOException {
-        return channel.position();
+        return position;
     }
 
     @Override
     public void seek(long newPos) throws IOException {
-        channel.position(newPos);
+        this.position = newPos;
     }
 
     @Override
     public int read() throws IOException {
-        ByteBuffer buf = ByteBuffer.allocate(1);
-        int read = channel.read(buf);
-        return read < 0 ? -1 : (buf.get(0) & 0xFF);
+        singleByte.clear();
+        int read = channel.read(singleByte, position);
+        if (read <= 0) {
+            return -1;
+        }
+        position++;
+        return singleByte.get(0) & 0xFF;
     }
 
     @Override
     public int read(byte[] bytes, int off, int len) throws IOException {
-        return channel.read(ByteBuffer.wrap(bytes, off, len));
+        return read(ByteBuffer.wrap(bytes, off, len));
     }
 
     @Override
     public int read(ByteBuffer dst) throws IOException {
-        return channel.read(dst);
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        int read = channel.read(dst, position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
     }
 
     @Override
@@ -51,20 +70,17 @@ public class LocalSeekableInputStream extends SeekableInputStream {
 
     @Override
     public void readFully(byte[] bytes, int off, int len) throws IOException {
-        ByteBuffer buf = ByteBuffer.wrap(bytes, off, len);
-        while (buf.hasRemaining()) {
-            if (channel.read(buf) < 0) {
-                throw new IOException("Unexpected EOF");
-            }
-        }
+        readFully(ByteBuffer.wrap(bytes, off, len));
     }
 
     @Override
     public void readFully(ByteBuffer dst) throws IOException {
         while (dst.hasRemaining()) {
-            if (channel.read(dst) < 0) {
-                throw new IOException("Unexpected EOF");
+            int read = channel.read(dst, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected EOF at position " + position);
             }
+            position += read;
         }
     }
 
@@ -72,4 +88,4 @@ public class LocalSeekableInputStream extends SeekableInputStream {
     public void close() throws IOException {
         channel.close();
     }
-}
\ No newline at end of file
+}
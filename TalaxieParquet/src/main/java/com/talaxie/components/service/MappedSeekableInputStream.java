@@ -0,0 +1,105 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Flux positionnable sur un fichier local projeté en mémoire.
+ * Les lectures sont de simples copies depuis le page cache, sans appel système.
+ * Un fichier de plus de 2 Go est projeté en plusieurs segments.
+ */
+public class MappedSeekableInputStream extends SeekableInputStream {
+
+    private final MappedByteBuffer[] segments;
+    private final long segmentSize;
+    private final long length;
+    private long position;
+
+    public MappedSeekableInputStream(final MappedByteBuffer[] segments, final long segmentSize, final long length) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.length = length;
+    }
+
+    @Override
+    public long getPos() {
+        return position;
+    }
+
+    @Override
+    public void seek(final long newPos) {
+        this.position = newPos;
+    }
+
+    @Override
+    public int read() {
+        if (position >= length) {
+            return -1;
+        }
+        int value = segments[(int) (position / segmentSize)].get((int) (position % segmentSize)) & 0xFF;
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int off, final int len) {
+        return read(ByteBuffer.wrap(bytes, off, len));
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        return copy(dst, (int) Math.min(dst.remaining(), length - position));
+    }
+
+    @Override
+    public void readFully(final byte[] bytes) throws IOException {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(final byte[] bytes, final int off, final int len) throws IOException {
+        readFully(ByteBuffer.wrap(bytes, off, len));
+    }
+
+    @Override
+    public void readFully(final ByteBuffer dst) throws IOException {
+        if (position + dst.remaining() > length) {
+            throw new EOFException("Unexpected EOF at position " + position);
+        }
+        copy(dst, dst.remaining());
+    }
+
+    private int copy(final ByteBuffer dst, final int len) {
+        int remaining = len;
+        while (remaining > 0) {
+            ByteBuffer segment = segments[(int) (position / segmentSize)].duplicate();
+            int offset = (int) (position % segmentSize);
+            int chunk = Math.min(remaining, segment.capacity() - offset);
+
+            segment.position(offset).limit(offset + chunk);
+            dst.put(segment);
+
+            position += chunk;
+            remaining -= chunk;
+        }
+        return len;
+    }
+
+    @Override
+    public void close() {
+        // Les segments sont libérés par le GC (pas d'unmap explicite en Java 17)
+    }
+}
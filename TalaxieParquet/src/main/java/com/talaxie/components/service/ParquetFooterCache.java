@@ -0,0 +1,118 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache des footers Parquet partagé par le process (service de schéma, mapper, workers).
+ * Une entrée est valide tant que la taille et la date de modification du fichier n'ont pas changé.
+ * Éviction LRU, bornée en nombre de fichiers et en nombre total de column chunks
+ * (ordre de grandeur de la taille du footer en mémoire).
+ */
+public final class ParquetFooterCache {
+
+    private static final ParquetFooterCache INSTANCE = new ParquetFooterCache(
+            Integer.getInteger("talaxie.parquet.footerCache.maxFiles", 256),
+            Long.getLong("talaxie.parquet.footerCache.maxColumnChunks", 1_000_000L));
+
+    private final int maxFiles;
+    private final long maxColumnChunks;
+    private final LinkedHashMap<String, CachedFooter> footers = new LinkedHashMap<>(16, 0.75f, true);
+    private long columnChunks;
+
+    ParquetFooterCache(final int maxFiles, final long maxColumnChunks) {
+        this.maxFiles = maxFiles;
+        this.maxColumnChunks = maxColumnChunks;
+    }
+
+    public static ParquetFooterCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Footer du fichier, lu au plus une fois tant que le fichier n'est pas modifié.
+     */
+    public ParquetMetadata get(final String path) {
+        final File file = new File(path).getAbsoluteFile();
+        final String key = file.getPath();
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+
+        synchronized (this) {
+            final CachedFooter cached = footers.get(key);
+            if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+                return cached.footer;
+            }
+        }
+
+        // Lecture hors verrou : deux threads peuvent lire le même footer, le dernier l'emporte
+        final ParquetMetadata footer = read(key);
+        put(key, new CachedFooter(size, lastModified, footer));
+        return footer;
+    }
+
+    public synchronized void invalidate(final String path) {
+        final CachedFooter removed = footers.remove(new File(path).getAbsolutePath());
+        if (removed != null) {
+            columnChunks -= removed.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        footers.clear();
+        columnChunks = 0;
+    }
+
+    private synchronized void put(final String key, final CachedFooter footer) {
+        final CachedFooter previous = footers.put(key, footer);
+        if (previous != null) {
+            columnChunks -= previous.weight;
+        }
+        columnChunks += footer.weight;
+
+        // Les entrées les moins récemment utilisées sortent en premier ; la dernière lue est conservée
+        final Iterator<Map.Entry<String, CachedFooter>> eldest = footers.entrySet().iterator();
+        while ((footers.size() > maxFiles || columnChunks > maxColumnChunks) && footers.size() > 1) {
+            final Map.Entry<String, CachedFooter> entry = eldest.next();
+            columnChunks -= entry.getValue().weight;
+            eldest.remove();
+        }
+    }
+
+    private static ParquetMetadata read(final String path) {
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(path))) {
+            return reader.getFooter();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read Parquet footer: " + path, e);
+        }
+    }
+
+    private static final class CachedFooter {
+
+        private final long size;
+        private final long lastModified;
+        private final ParquetMetadata footer;
+        private final long weight;
+
+        CachedFooter(final long size, final long lastModified, final ParquetMetadata footer) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.footer = footer;
+            long chunks = 0;
+            for (BlockMetaData block : footer.getBlocks()) {
+                chunks += block.getColumns().size();
+            }
+            this.weight = chunks;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import com.talaxie.components.dataset.ParquetInputDataset;
+import com.talaxie.components.datastore.ParquetDatastore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Résolution des fichiers Parquet d'un dataset d'entrée.
+ * Le chemin peut désigner un fichier, un répertoire ou un motif glob
+ * (ex : /data/events/*.parquet). Un chemin relatif est résolu
+ * par rapport au basePath du datastore.
+ */
+public final class ParquetInputFiles {
+
+    private static final String GLOB_CHARS = "*?[{";
+
+    private ParquetInputFiles() {
+    }
+
+    /**
+     * Liste triée des fichiers Parquet à lire.
+     * Les fichiers cachés ou techniques (préfixes "." et "_", ex : _SUCCESS) sont ignorés.
+     */
+    public static List<String> resolve(final ParquetInputDataset dataset) {
+        final String location = resolveLocation(dataset);
+
+        if (isGlob(location)) {
+            return listGlob(location);
+        }
+
+        final Path path = Paths.get(location);
+        if (Files.isDirectory(path)) {
+            return listDirectory(path, dataset.isRecursive() ? Integer.MAX_VALUE : 1);
+        }
+
+        // Fichier unique : l'absence est signalée à l'ouverture (LocalInputFile)
+        return List.of(location);
+    }
+
+    /**
+     * Chemin effectif du dataset, combiné au basePath du datastore si besoin.
+     */
+    public static String resolveLocation(final ParquetInputDataset dataset) {
+        final String path = dataset.getPath();
+        final ParquetDatastore datastore = dataset.getDatastore();
+        final String basePath = datastore == null ? null : datastore.getBasePath();
+
+        if (basePath == null || basePath.isEmpty()) {
+            return path;
+        }
+        if (path == null || path.isEmpty()) {
+            return basePath;
+        }
+        if (Paths.get(stripGlob(path)).isAbsolute()) {
+            return path;
+        }
+        return Paths.get(basePath).resolve(path).toString();
+    }
+
+    public static boolean isGlob(final String location) {
+        for (int i = 0; i < location.length(); i++) {
+            if (GLOB_CHARS.indexOf(location.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> listGlob(final String location) {
+        final String pattern = Paths.get(stripGlob(location)).isAbsolute()
+                ? location
+                : Paths.get("").toAbsolutePath() + File.separator + location;
+        final Path root = Paths.get(stripGlob(pattern));
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> !isHidden(p))
+                    .filter(matcher::matches)
+                    .map(Path::toString)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to list Parquet files: " + pattern, e);
+        }
+    }
+
+    private static List<String> listDirectory(final Path directory, final int maxDepth) {
+        try (Stream<Path> files = Files.walk(directory, maxDepth)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> !isHidden(p))
+                    .filter(p -> p.getFileName().toString().endsWith(".parquet"))
+                    .map(Path::toString)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to list Parquet files: " + directory, e);
+        }
+    }
+
+    /**
+     * Partie fixe d'un motif glob : les segments qui précèdent le premier caractère spécial.
+     */
+    private static String stripGlob(final String pattern) {
+        int firstGlob = pattern.length();
+        for (int i = 0; i < pattern.length(); i++) {
+            if (GLOB_CHARS.indexOf(pattern.charAt(i)) >= 0) {
+                firstGlob = i;
+                break;
+            }
+        }
+        if (firstGlob == pattern.length()) {
+            return pattern;
+        }
+        final int lastSeparator = Math.max(
+                pattern.lastIndexOf('/', firstGlob),
+                pattern.lastIndexOf(File.separatorChar, firstGlob));
+        return lastSeparator <= 0 ? (lastSeparator == 0 ? "/" : ".") : pattern.substring(0, lastSeparator);
+    }
+
+    private static boolean isHidden(final Path path) {
+        final String name = path.getFileName().toString();
+        return name.startsWith(".") || name.startsWith("_");
+    }
+}
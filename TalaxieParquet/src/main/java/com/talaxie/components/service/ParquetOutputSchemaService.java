@@ -6,6 +6,11 @@ package com.talaxie.components.service;
 import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.record.Schema.Entry;
 import org.talend.sdk.component.api.service.Service;
@@ -19,11 +24,22 @@ import java.util.List;
 @Documentation("Service de construction de schéma Avro à partir d'un schéma Talend pour l'écriture Parquet.")
 public class ParquetOutputSchemaService implements Serializable {
 
+    // Précision / échelle des colonnes DECIMAL écrites
+    public static final int DECIMAL_PRECISION = 38;
+    public static final int DECIMAL_SCALE = 18;
+
     public Schema buildAvroSchema(final org.talend.sdk.component.api.record.Schema talendSchema) {
+        return buildAvroSchema(talendSchema.getEntries());
+    }
+
+    /**
+     * Schéma Avro des entrées données (ex : sans les colonnes de partition, portées par les répertoires).
+     */
+    public Schema buildAvroSchema(final List<Entry> entries) {
 
         final List<Field> fields = new ArrayList<>();
 
-        for (Entry entry : talendSchema.getEntries()) {
+        for (Entry entry : entries) {
             Schema fieldSchema = toAvroType(entry);
 
             // Tous les champs sont NULLABLE
@@ -53,6 +69,53 @@ public class ParquetOutputSchemaService implements Serializable {
         );
     }
 
+    /**
+     * Schéma Parquet écrit par l'écriture directe (sans Avro) : identique à celui que produit
+     * AvroParquetWriter pour {@link #buildAvroSchema}, les fichiers des deux modes sont interchangeables.
+     */
+    public MessageType buildParquetSchema(final org.talend.sdk.component.api.record.Schema talendSchema) {
+        return buildParquetSchema(talendSchema.getEntries());
+    }
+
+    public MessageType buildParquetSchema(final List<Entry> entries) {
+        final Types.MessageTypeBuilder builder = Types.buildMessage();
+
+        for (Entry entry : entries) {
+            builder.addField(toParquetType(entry));
+        }
+        return builder.named("TalaxieParquetRecord");
+    }
+
+    private Type toParquetType(final Entry entry) {
+        switch (entry.getType()) {
+            case INT:
+                return Types.optional(PrimitiveTypeName.INT32).named(entry.getName());
+            case LONG:
+                return Types.optional(PrimitiveTypeName.INT64).named(entry.getName());
+            case FLOAT:
+                return Types.optional(PrimitiveTypeName.FLOAT).named(entry.getName());
+            case DOUBLE:
+                return Types.optional(PrimitiveTypeName.DOUBLE).named(entry.getName());
+            case BOOLEAN:
+                return Types.optional(PrimitiveTypeName.BOOLEAN).named(entry.getName());
+            case BYTES:
+                return Types.optional(PrimitiveTypeName.BINARY).named(entry.getName());
+            case DATETIME:
+                return Types.optional(PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                        .named(entry.getName());
+            case DECIMAL:
+                return Types.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.decimalType(DECIMAL_SCALE, DECIMAL_PRECISION))
+                        .named(entry.getName());
+            case STRING:
+            default:
+                return Types.optional(PrimitiveTypeName.BINARY)
+                        .as(LogicalTypeAnnotation.stringType())
+                        .named(entry.getName());
+        }
+    }
+
     private Schema toAvroType(final Entry entry) {
 
         Schema baseSchema;
@@ -93,7 +156,7 @@ public class ParquetOutputSchemaService implements Serializable {
 
             case DECIMAL:
                 Schema decimalSchema = Schema.create(Schema.Type.BYTES);
-                LogicalTypes.decimal(38, 18).addToSchema(decimalSchema);
+                LogicalTypes.decimal(DECIMAL_PRECISION, DECIMAL_SCALE).addToSchema(decimalSchema);
                 baseSchema = decimalSchema;
                 break;
 
@@ -0,0 +1,145 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type.Repetition;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.record.Schema.Type;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.util.Set;
+
+/**
+ * Conversion du schéma Parquet (footer) en schéma Talend.
+ * Les entrées suivent l'ordre des colonnes du fichier ; les types imbriqués deviennent des RECORD et ARRAY.
+ */
+public final class ParquetSchemaConverter {
+
+    private ParquetSchemaConverter() {
+    }
+
+    /**
+     * @param excluded colonnes lues mais non émises (ex : colonnes de filtre hors projection)
+     */
+    public static Schema toTalendSchema(final RecordBuilderFactory factory, final MessageType parquetSchema,
+                                        final Set<String> excluded) {
+        final Schema.Builder builder = factory.newSchemaBuilder(Type.RECORD);
+
+        for (org.apache.parquet.schema.Type field : parquetSchema.getFields()) {
+            if (excluded.contains(field.getName())) {
+                continue;
+            }
+            builder.withEntry(toEntry(factory, field));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Entrée Talend d'un champ. Les groupes deviennent des RECORD, les champs répétés, LIST et MAP
+     * des ARRAY (une MAP est une liste de records clé / valeur).
+     */
+    private static Schema.Entry toEntry(final RecordBuilderFactory factory, final org.apache.parquet.schema.Type field) {
+        final Schema.Entry.Builder entry = factory.newEntryBuilder()
+                .withName(field.getName())
+                .withNullable(!field.isRepetition(Repetition.REQUIRED));
+
+        final org.apache.parquet.schema.Type element = listElement(field);
+        if (element != null) {
+            return entry.withType(Type.ARRAY).withElementSchema(toElementSchema(factory, element)).build();
+        }
+        if (!field.isPrimitive()) {
+            return entry.withType(Type.RECORD).withElementSchema(toRecordSchema(factory, field.asGroupType())).build();
+        }
+        return entry.withType(toTalendType(field.asPrimitiveType())).build();
+    }
+
+    private static Schema toRecordSchema(final RecordBuilderFactory factory, final GroupType group) {
+        final Schema.Builder builder = factory.newSchemaBuilder(Type.RECORD);
+        for (org.apache.parquet.schema.Type field : group.getFields()) {
+            builder.withEntry(toEntry(factory, field));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Schéma des éléments d'une liste : record, liste imbriquée ou type simple.
+     */
+    private static Schema toElementSchema(final RecordBuilderFactory factory, final org.apache.parquet.schema.Type element) {
+        final org.apache.parquet.schema.Type nested = element.isRepetition(Repetition.REPEATED) ? null : listElement(element);
+        if (nested != null) {
+            return factory.newSchemaBuilder(Type.ARRAY).withElementSchema(toElementSchema(factory, nested)).build();
+        }
+        if (!element.isPrimitive()) {
+            return toRecordSchema(factory, element.asGroupType());
+        }
+        return factory.newSchemaBuilder(toTalendType(element.asPrimitiveType())).build();
+    }
+
+    /**
+     * Élément d'un champ liste, ou null si le champ n'est pas une liste :
+     * <ul>
+     *     <li>champ répété sans annotation : le champ lui-même est l'élément ;</li>
+     *     <li>groupe LIST à 3 niveaux ({@code repeated group list { element }}) : le champ unique du groupe répété ;</li>
+     *     <li>groupe LIST à 2 niveaux (legacy) ou MAP : le champ répété lui-même.</li>
+     * </ul>
+     */
+    public static org.apache.parquet.schema.Type listElement(final org.apache.parquet.schema.Type field) {
+        if (field.isRepetition(Repetition.REPEATED)) {
+            return field;
+        }
+        final org.apache.parquet.schema.Type repeated = repeatedChild(field);
+        if (repeated == null) {
+            return null;
+        }
+
+        final LogicalTypeAnnotation annotation = field.getLogicalTypeAnnotation();
+        if (annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation
+                && !repeated.isPrimitive()
+                && repeated.asGroupType().getFieldCount() == 1
+                && !repeated.getName().equals("array")
+                && !repeated.getName().equals(field.getName() + "_tuple")) {
+            return repeated.asGroupType().getType(0);
+        }
+        return repeated;
+    }
+
+    /**
+     * Champ répété d'un groupe annoté LIST ou MAP, ou null pour un autre champ.
+     */
+    public static org.apache.parquet.schema.Type repeatedChild(final org.apache.parquet.schema.Type field) {
+        if (field.isPrimitive() || field.asGroupType().getFieldCount() != 1) {
+            return null;
+        }
+        final LogicalTypeAnnotation annotation = field.getLogicalTypeAnnotation();
+        final org.apache.parquet.schema.Type child = field.asGroupType().getType(0);
+        final boolean annotated = annotation instanceof LogicalTypeAnnotation.ListLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.MapLogicalTypeAnnotation
+                || annotation instanceof LogicalTypeAnnotation.MapKeyValueTypeAnnotation;
+        return annotated && child.isRepetition(Repetition.REPEATED) ? child : null;
+    }
+
+    /**
+     * Type Talend d'une colonne, cohérent avec le décodage effectué par le reader.
+     */
+    public static Type toTalendType(final org.apache.parquet.schema.Type field) {
+        if (listElement(field) != null) {
+            return Type.ARRAY;
+        }
+        if (!field.isPrimitive()) {
+            return Type.RECORD;
+        }
+        return toTalendType(field.asPrimitiveType());
+    }
+
+    /**
+     * Type Talend d'une valeur simple (colonne plate ou élément de liste).
+     */
+    public static Type toTalendType(final PrimitiveType primitiveType) {
+        return ParquetValueType.of(primitiveType).getTalendType();
+    }
+}
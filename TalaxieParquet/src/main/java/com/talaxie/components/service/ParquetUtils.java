@@ -3,68 +3,237 @@
  */
 package com.talaxie.components.service;
 
-import org.apache.parquet.VersionParser.ParsedVersion;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.ColumnReader;
-import org.apache.parquet.column.impl.ColumnReaderImpl;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
 import org.apache.parquet.column.page.PageReadStore;
-import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
 import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
-import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 public final class ParquetUtils {
 
     private ParquetUtils() {
     }
 
+    // Jour julien du 1970-01-01, référence des timestamps INT96
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+
     public static boolean isDecimal(ColumnDescriptor desc) {
-        return desc.getType() == PrimitiveType.PrimitiveTypeName.BINARY
-                && desc.getPrimitiveType().getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+        return desc.getPrimitiveType().getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
     }
 
     public static boolean isTimestamp(ColumnDescriptor desc) {
         return desc.getPrimitiveType().getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
     }
 
-    public static BigDecimal binaryToBigDecimal(byte[] bytes) {
-        return new BigDecimal(new BigInteger(bytes), 2); // adapter scale
+    /**
+     * DECIMAL stocké en BINARY / FIXED_LEN_BYTE_ARRAY : entier signé big-endian en complément à deux.
+     * Jusqu'à 8 octets (précision &lt;= 18), la valeur non mise à l'échelle tient dans un long.
+     */
+    public static BigDecimal binaryToBigDecimal(final byte[] bytes, final int offset, final int length, final int scale) {
+        if (length <= 8) {
+            long unscaled = length == 0 ? 0 : bytes[offset]; // octet de poids fort signé
+            for (int i = 1; i < length; i++) {
+                unscaled = (unscaled << 8) | (bytes[offset + i] & 0xFF);
+            }
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+        return new BigDecimal(new BigInteger(bytes, offset, length), scale);
     }
 
-    public static Map<String, ColumnReader> buildColumnReaders(
-            org.apache.parquet.schema.MessageType schema,
-            PageReadStore rowGroup) {
+    public static BigDecimal binaryToBigDecimal(final Binary value, final int scale) {
+        final ByteBuffer buffer = value.toByteBuffer();
+        if (buffer.hasArray()) {
+            return binaryToBigDecimal(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), scale);
+        }
+        return binaryToBigDecimal(value.getBytes(), 0, value.length(), scale);
+    }
 
-        if (rowGroup == null) {
-            return Map.of();
+    /**
+     * Timestamp INT96 (Impala / Hive / anciens Spark) : nanosecondes du jour puis jour julien, little-endian.
+     */
+    public static Instant int96ToInstant(final byte[] bytes, final int offset) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, 12).order(ByteOrder.LITTLE_ENDIAN);
+        final long nanosOfDay = buffer.getLong();
+        final long julianDay = buffer.getInt();
+        return Instant.ofEpochSecond((julianDay - JULIAN_EPOCH_DAY) * 86_400L, nanosOfDay);
+    }
+
+    public static Instant int96ToInstant(final Binary value) {
+        final ByteBuffer buffer = value.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        final long nanosOfDay = buffer.getLong(buffer.position());
+        final long julianDay = buffer.getInt(buffer.position() + 8);
+        return Instant.ofEpochSecond((julianDay - JULIAN_EPOCH_DAY) * 86_400L, nanosOfDay);
+    }
+
+    /**
+     * UUID stocké en FIXED_LEN_BYTE_ARRAY(16), big-endian.
+     */
+    public static UUID bytesToUuid(final byte[] bytes, final int offset) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, 16);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public static UUID bytesToUuid(final Binary value) {
+        final ByteBuffer buffer = value.toByteBuffer();
+        return new UUID(buffer.getLong(buffer.position()), buffer.getLong(buffer.position() + 8));
+    }
+
+    /**
+     * Footer d'un fichier Parquet local (aucune page de données), via le cache partagé du process.
+     */
+    public static ParquetMetadata readFooter(final String path) {
+        return ParquetFooterCache.getInstance().get(path);
+    }
+
+    /**
+     * Schéma de lecture réduit aux colonnes demandées, dans l'ordre du fichier.
+     * Une liste vide ou null conserve toutes les colonnes.
+     */
+    public static MessageType project(final MessageType fileSchema, final Collection<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return fileSchema;
+        }
+
+        for (String column : columns) {
+            if (!fileSchema.containsField(column)) {
+                throw new IllegalStateException("Column not found in Parquet schema: " + column);
+            }
+        }
+
+        List<Type> fields = new ArrayList<>();
+        for (Type field : fileSchema.getFields()) {
+            if (columns.contains(field.getName())) {
+                fields.add(field);
+            }
         }
+        return new MessageType(fileSchema.getName(), fields);
+    }
 
-        Map<String, ColumnReader> readers = new HashMap<>();
+    /**
+     * Taille compressée des column chunks effectivement lus (colonnes du schéma demandé), par row group.
+     */
+    public static long[] rowGroupSizes(final List<BlockMetaData> blocks, final MessageType requestedSchema) {
+        long[] sizes = new long[blocks.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            for (ColumnChunkMetaData chunk : blocks.get(i).getColumns()) {
+                if (requestedSchema.containsPath(chunk.getPath().toArray())) {
+                    sizes[i] += chunk.getTotalSize();
+                }
+            }
+        }
+        return sizes;
+    }
 
-        for (ColumnDescriptor col : schema.getColumns()) {
-            PageReader pageReader = rowGroup.getPageReader(col);
-            if (pageReader == null) {
+    /**
+     * Colonnes plates entièrement nulles dans un row group, d'après les statistiques du footer,
+     * dans l'ordre de {@code schema.getColumns()}. Leurs valeurs n'ont pas besoin d'être parcourues.
+     */
+    public static boolean[] nullColumns(final BlockMetaData block, final MessageType schema) {
+        List<ColumnDescriptor> columns = schema.getColumns();
+        boolean[] nulls = new boolean[columns.size()];
+        for (ColumnChunkMetaData chunk : block.getColumns()) {
+            Statistics<?> statistics = chunk.getStatistics();
+            if (statistics == null || !statistics.isNumNullsSet()
+                    || statistics.getNumNulls() != block.getRowCount()) {
                 continue;
             }
+            String[] path = chunk.getPath().toArray();
+            for (int i = 0; i < nulls.length; i++) {
+                ColumnDescriptor column = columns.get(i);
+                if (path.length == 1 && column.getMaxRepetitionLevel() == 0 && Arrays.equals(column.getPath(), path)) {
+                    nulls[i] = true;
+                }
+            }
+        }
+        return nulls;
+    }
 
-            PrimitiveConverter noop = new PrimitiveConverter() { };
-            ParsedVersion version = new ParsedVersion("1", "0", "0");
+    /**
+     * Lecteurs de colonnes d'un row group, dans l'ordre de {@code schema.getColumns()}.
+     * Passer par {@link ColumnReadStoreImpl} garantit que les lecteurs restent synchronisés
+     * lorsque le row group a été filtré page par page (column index / offset index).
+     *
+     * @param converters converter associé à chaque colonne (même ordre), ou null pour un converter sans effet.
+     *                   Un converter qui supporte les dictionnaires reçoit celui de chaque column chunk.
+     */
+    public static ColumnReader[] buildColumnReaders(
+            MessageType schema,
+            PageReadStore rowGroup,
+            String createdBy,
+            PrimitiveConverter[] converters) {
 
-            ColumnReader reader = new ColumnReaderImpl(
-                    col,
-                    pageReader,
-                    noop,
-                    version
-            );
+        if (rowGroup == null) {
+            return new ColumnReader[0];
+        }
 
-            readers.put(col.getPath()[0], reader);
+        GroupConverter root = new LeafGroupConverter(schema, converters, new int[1]);
+        ColumnReadStoreImpl store = new ColumnReadStoreImpl(rowGroup, root, schema, createdBy);
+        List<ColumnDescriptor> columns = schema.getColumns();
+        ColumnReader[] readers = new ColumnReader[columns.size()];
+
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = store.getColumnReader(columns.get(i));
         }
 
         return readers;
     }
-}
\ No newline at end of file
+
+    /**
+     * Arbre de converters : seules les feuilles servent (dictionnaires, valeurs poussées),
+     * la lecture se faisant directement via les ColumnReader.
+     */
+    private static final class LeafGroupConverter extends GroupConverter {
+
+        private final Converter[] children;
+
+        LeafGroupConverter(final GroupType type, final PrimitiveConverter[] leaves, final int[] nextLeaf) {
+            this.children = new Converter[type.getFieldCount()];
+            for (int i = 0; i < children.length; i++) {
+                Type field = type.getType(i);
+                if (field.isPrimitive()) {
+                    // Les feuilles sont parcourues dans l'ordre de MessageType.getColumns()
+                    PrimitiveConverter leaf = leaves == null ? null : leaves[nextLeaf[0]];
+                    nextLeaf[0]++;
+                    children[i] = leaf != null ? leaf : new PrimitiveConverter() { };
+                } else {
+                    children[i] = new LeafGroupConverter(field.asGroupType(), leaves, nextLeaf);
+                }
+            }
+        }
+
+        @Override
+        public Converter getConverter(final int fieldIndex) {
+            return children[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+}
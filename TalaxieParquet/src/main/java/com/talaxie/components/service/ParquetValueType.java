@@ -0,0 +1,157 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.talend.sdk.component.api.record.Schema.Type;
+
+/**
+ * Table unique des valeurs simples lues dans un fichier Parquet : type physique et annotation
+ * logique d'une colonne donnent une constante, qui porte le type Talend émis.
+ * Le schéma Talend ({@link ParquetSchemaConverter}) et les décodeurs du reader (ligne à ligne,
+ * par lots, champs imbriqués) partent tous de ce classement ; les décodeurs traitent les constantes
+ * dans des switch exhaustifs, une constante ajoutée ici ne compile pas tant qu'ils l'ignorent.
+ */
+public enum ParquetValueType {
+    BOOLEAN(Type.BOOLEAN),
+    INT(Type.INT),
+    LONG(Type.LONG),
+    FLOAT(Type.FLOAT),
+    DOUBLE(Type.DOUBLE),
+    // BINARY sans annotation : lu comme texte UTF-8, comme le font la plupart des writers
+    STRING(Type.STRING),
+    // FIXED_LEN_BYTE_ARRAY(16) annoté UUID, émis en texte
+    UUID(Type.STRING),
+    // FIXED_LEN_BYTE_ARRAY sans annotation, BSON
+    BYTES(Type.BYTES),
+    // INT32, jours depuis epoch : Talend ne distingue pas DATE et DATETIME, on pose minuit UTC
+    DATE(Type.DATETIME),
+    TIMESTAMP_MILLIS(Type.DATETIME),
+    TIMESTAMP_MICROS(Type.DATETIME),
+    TIMESTAMP_NANOS(Type.DATETIME),
+    // Timestamp legacy (Impala / Hive / Spark)
+    INT96_TIMESTAMP(Type.DATETIME),
+    // TIME : Talend n'a pas de type heure, heure du jour au 1970-01-01
+    TIME_MILLIS(Type.DATETIME),
+    TIME_MICROS(Type.DATETIME),
+    TIME_NANOS(Type.DATETIME),
+    DECIMAL_INT32(Type.DECIMAL),
+    DECIMAL_INT64(Type.DECIMAL),
+    // BINARY / FIXED_LEN_BYTE_ARRAY : complément à deux big-endian
+    DECIMAL_BINARY(Type.DECIMAL);
+
+    private final Type talendType;
+
+    ParquetValueType(final Type talendType) {
+        this.talendType = talendType;
+    }
+
+    public Type getTalendType() {
+        return talendType;
+    }
+
+    /**
+     * Constante d'une colonne plate ou d'une feuille de champ imbriqué.
+     */
+    public static ParquetValueType of(final PrimitiveType primitiveType) {
+        final PrimitiveType.PrimitiveTypeName physicalType = primitiveType.getPrimitiveTypeName();
+        final LogicalTypeAnnotation logicalType = primitiveType.getLogicalTypeAnnotation();
+
+        if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+            switch (physicalType) {
+                case INT32:
+                    return DECIMAL_INT32;
+                case INT64:
+                    return DECIMAL_INT64;
+                default:
+                    return DECIMAL_BINARY;
+            }
+        }
+        if (logicalType instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation time) {
+            switch (time.getUnit()) {
+                case MICROS:
+                    return TIME_MICROS;
+                case NANOS:
+                    return TIME_NANOS;
+                case MILLIS:
+                default:
+                    return TIME_MILLIS;
+            }
+        }
+
+        switch (physicalType) {
+            case BOOLEAN:
+                return BOOLEAN;
+            case INT32:
+                if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation
+                        || primitiveType.getOriginalType() == OriginalType.DATE) {
+                    return DATE;
+                }
+                return INT;
+            case INT64:
+                if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation ts) {
+                    switch (ts.getUnit()) {
+                        case MICROS:
+                            return TIMESTAMP_MICROS;
+                        case NANOS:
+                            return TIMESTAMP_NANOS;
+                        case MILLIS:
+                        default:
+                            return TIMESTAMP_MILLIS;
+                    }
+                }
+                return LONG;
+            case INT96:
+                return INT96_TIMESTAMP;
+            case FLOAT:
+                return FLOAT;
+            case DOUBLE:
+                return DOUBLE;
+            case FIXED_LEN_BYTE_ARRAY:
+                if (logicalType instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation) {
+                    return UUID;
+                }
+                return BYTES;
+            case BINARY:
+            default:
+                if (logicalType instanceof LogicalTypeAnnotation.BsonLogicalTypeAnnotation) {
+                    return BYTES;
+                }
+                return STRING;
+        }
+    }
+
+    /**
+     * Échelle d'une colonne DECIMAL, 0 pour les autres.
+     */
+    public static int scale(final PrimitiveType primitiveType) {
+        return primitiveType.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal
+                ? decimal.getScale()
+                : 0;
+    }
+
+    /**
+     * Annotation traduite par la table. Une autre annotation (INTERVAL, entiers non signés
+     * sur 32 ou 64 bits...) est ignorée : la colonne est lue selon son seul type physique.
+     */
+    public static boolean isSupported(final PrimitiveType primitiveType) {
+        final LogicalTypeAnnotation logicalType = primitiveType.getLogicalTypeAnnotation();
+        if (logicalType instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation integer) {
+            // un entier non signé n'est exact que s'il tient dans le type signé de même largeur
+            return integer.isSigned() || integer.getBitWidth() < 32;
+        }
+        return logicalType == null
+                || logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.BsonLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.UUIDLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation
+                || logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+    }
+}
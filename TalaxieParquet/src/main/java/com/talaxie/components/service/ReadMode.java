@@ -0,0 +1,14 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.service;
+
+/**
+ * Mode d'accès aux fichiers Parquet locaux.
+ */
+public enum ReadMode {
+    // Lectures positionnelles (pread) sur un FileChannel
+    CHANNEL,
+    // Projection du fichier en mémoire (mmap)
+    MEMORY_MAPPED
+}
@@ -0,0 +1,20 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import org.apache.parquet.column.ColumnReader;
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Décodage de la valeur courante d'une colonne vers le record Talend.
+ * Le type de la colonne est résolu une seule fois, à la construction du décodeur :
+ * l'appel par ligne ne fait plus que lire la valeur et la poser dans le builder.
+ * Les valeurs nulles sont traitées en amont (niveau de définition) : le décodeur n'est appelé
+ * que pour des valeurs présentes.
+ */
+@FunctionalInterface
+interface ColumnDecoder {
+
+    void decode(ColumnReader reader, Record.Builder builder);
+}
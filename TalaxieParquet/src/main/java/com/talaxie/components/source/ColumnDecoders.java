@@ -0,0 +1,210 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.service.ParquetUtils;
+import com.talaxie.components.service.ParquetValueType;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.talend.sdk.component.api.record.Schema;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Construction du plan de décodage d'un fichier : un {@link ColumnDecoder} spécialisé par colonne,
+ * dans l'ordre de {@link MessageType#getColumns()} (qui est aussi celui des ColumnReader).
+ */
+final class ColumnDecoders {
+
+    private static final Logger LOGGER = Logger.getLogger(ColumnDecoders.class.getName());
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private ColumnDecoders() {
+    }
+
+    /**
+     * Converters des colonnes émises en String : ils reçoivent le dictionnaire de chaque column chunk
+     * et mettent en cache le décodage UTF-8 de ses entrées. null pour les autres colonnes.
+     */
+    static PrimitiveConverter[] converters(final MessageType schema, final Schema recordSchema) {
+        final List<ColumnDescriptor> columns = schema.getColumns();
+        final PrimitiveConverter[] converters = new PrimitiveConverter[columns.size()];
+
+        for (int i = 0; i < converters.length; i++) {
+            final ColumnDescriptor descriptor = columns.get(i);
+            final Schema.Entry entry = recordSchema.getEntry(descriptor.getPath()[0]);
+            if (entry != null && isFlat(descriptor)
+                    && ParquetValueType.of(descriptor.getPrimitiveType()) == ParquetValueType.STRING) {
+                converters[i] = new Utf8StringConverter();
+            }
+        }
+        return converters;
+    }
+
+    /**
+     * Colonnes décodées par valeur : colonnes plates, non répétées.
+     */
+    static boolean isFlat(final ColumnDescriptor descriptor) {
+        return descriptor.getPath().length == 1 && descriptor.getMaxRepetitionLevel() == 0;
+    }
+
+    /**
+     * Les décodeurs écrivent directement dans l'entrée correspondante du schéma Talend.
+     * Une colonne absente du schéma Talend (colonne de filtre hors projection) ou imbriquée n'a pas de décodeur.
+     * Une colonne émise dont l'annotation n'est pas traduite est signalée une fois, ici, et non à chaque ligne.
+     */
+    static ColumnDecoder[] compile(final MessageType schema, final Schema recordSchema,
+                                   final PrimitiveConverter[] converters) {
+        final List<ColumnDescriptor> columns = schema.getColumns();
+        final ColumnDecoder[] decoders = new ColumnDecoder[columns.size()];
+
+        for (int i = 0; i < decoders.length; i++) {
+            final ColumnDescriptor descriptor = columns.get(i);
+            final Schema.Entry entry = recordSchema.getEntry(descriptor.getPath()[0]);
+            if (entry != null && !ParquetValueType.isSupported(descriptor.getPrimitiveType())) {
+                LOGGER.warning("Unsupported Parquet column type, read as its physical type: "
+                        + String.join(".", descriptor.getPath()) + " (" + descriptor.getPrimitiveType() + ")");
+            }
+            if (entry == null || !isFlat(descriptor)) {
+                // colonnes imbriquées : assemblées par NestedDecoders
+                decoders[i] = null;
+            } else if (converters[i] instanceof Utf8StringConverter strings) {
+                decoders[i] = (reader, builder) -> {
+                    reader.writeCurrentValueToConverter();
+                    builder.withString(entry, strings.current());
+                };
+            } else {
+                decoders[i] = decoder(entry, descriptor.getPrimitiveType());
+            }
+        }
+        return decoders;
+    }
+
+    /**
+     * Décodeur d'une colonne plate : une branche par constante de {@link ParquetValueType},
+     * comme {@link #valueReader} et {@link #vectorDecoder}.
+     */
+    private static ColumnDecoder decoder(final Schema.Entry entry, final PrimitiveType primitiveType) {
+        final int scale = ParquetValueType.scale(primitiveType);
+        return switch (ParquetValueType.of(primitiveType)) {
+            case BOOLEAN -> (reader, builder) -> builder.withBoolean(entry, reader.getBoolean());
+            case INT -> (reader, builder) -> builder.withInt(entry, reader.getInteger());
+            case LONG -> (reader, builder) -> builder.withLong(entry, reader.getLong());
+            case FLOAT -> (reader, builder) -> builder.withFloat(entry, reader.getFloat());
+            case DOUBLE -> (reader, builder) -> builder.withDouble(entry, reader.getDouble());
+            case STRING -> (reader, builder) -> builder.withString(entry, reader.getBinary().toStringUsingUTF8());
+            case UUID -> (reader, builder) -> builder.withString(entry,
+                    ParquetUtils.bytesToUuid(reader.getBinary()).toString());
+            case BYTES -> (reader, builder) -> builder.withBytes(entry, reader.getBinary().getBytes());
+            case DATE -> (reader, builder) -> builder.withDateTime(entry,
+                    LocalDate.ofEpochDay(reader.getInteger()).atStartOfDay(UTC));
+            case TIMESTAMP_MILLIS -> (reader, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochMilli(reader.getLong()).atZone(UTC));
+            case TIMESTAMP_MICROS, TIME_MICROS -> (reader, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochSecond(0, reader.getLong() * 1_000L).atZone(UTC));
+            case TIMESTAMP_NANOS, TIME_NANOS -> (reader, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochSecond(0, reader.getLong()).atZone(UTC));
+            case INT96_TIMESTAMP -> (reader, builder) -> builder.withDateTime(entry,
+                    ParquetUtils.int96ToInstant(reader.getBinary()).atZone(UTC));
+            case TIME_MILLIS -> (reader, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochMilli(reader.getInteger()).atZone(UTC));
+            case DECIMAL_INT32 -> (reader, builder) -> builder.withDecimal(entry,
+                    BigDecimal.valueOf(reader.getInteger(), scale));
+            case DECIMAL_INT64 -> (reader, builder) -> builder.withDecimal(entry,
+                    BigDecimal.valueOf(reader.getLong(), scale));
+            case DECIMAL_BINARY -> (reader, builder) -> builder.withDecimal(entry,
+                    ParquetUtils.binaryToBigDecimal(reader.getBinary(), scale));
+        };
+    }
+
+    /**
+     * Lecture objet d'une valeur simple (feuille d'un champ imbriqué), même table que {@link #compile}.
+     */
+    static ValueReader valueReader(final PrimitiveType primitiveType) {
+        final int scale = ParquetValueType.scale(primitiveType);
+        return switch (ParquetValueType.of(primitiveType)) {
+            case BOOLEAN -> ColumnReader::getBoolean;
+            case INT -> ColumnReader::getInteger;
+            case LONG -> ColumnReader::getLong;
+            case FLOAT -> ColumnReader::getFloat;
+            case DOUBLE -> ColumnReader::getDouble;
+            case STRING -> reader -> reader.getBinary().toStringUsingUTF8();
+            case UUID -> reader -> ParquetUtils.bytesToUuid(reader.getBinary()).toString();
+            case BYTES -> reader -> reader.getBinary().getBytes();
+            case DATE -> reader -> LocalDate.ofEpochDay(reader.getInteger()).atStartOfDay(UTC);
+            case TIMESTAMP_MILLIS -> reader -> Instant.ofEpochMilli(reader.getLong()).atZone(UTC);
+            case TIMESTAMP_MICROS, TIME_MICROS -> reader -> Instant.ofEpochSecond(0, reader.getLong() * 1_000L).atZone(UTC);
+            case TIMESTAMP_NANOS, TIME_NANOS -> reader -> Instant.ofEpochSecond(0, reader.getLong()).atZone(UTC);
+            case INT96_TIMESTAMP -> reader -> ParquetUtils.int96ToInstant(reader.getBinary()).atZone(UTC);
+            case TIME_MILLIS -> reader -> Instant.ofEpochMilli(reader.getInteger()).atZone(UTC);
+            case DECIMAL_INT32 -> reader -> BigDecimal.valueOf(reader.getInteger(), scale);
+            case DECIMAL_INT64 -> reader -> BigDecimal.valueOf(reader.getLong(), scale);
+            case DECIMAL_BINARY -> reader -> ParquetUtils.binaryToBigDecimal(reader.getBinary(), scale);
+        };
+    }
+
+    // ============================================================
+    // Mode par lots
+    // ============================================================
+
+    /**
+     * Plan de matérialisation depuis les {@link ColumnVector}, aligné sur {@link #compile}.
+     */
+    static VectorDecoder[] compileVectors(final MessageType schema, final Schema recordSchema) {
+        final List<ColumnDescriptor> columns = schema.getColumns();
+        final VectorDecoder[] decoders = new VectorDecoder[columns.size()];
+
+        for (int i = 0; i < decoders.length; i++) {
+            final ColumnDescriptor descriptor = columns.get(i);
+            final Schema.Entry entry = recordSchema.getEntry(descriptor.getPath()[0]);
+            decoders[i] = entry == null ? null : vectorDecoder(entry, descriptor.getPrimitiveType());
+        }
+        return decoders;
+    }
+
+    private static VectorDecoder vectorDecoder(final Schema.Entry entry, final PrimitiveType primitiveType) {
+        final int scale = ParquetValueType.scale(primitiveType);
+        return switch (ParquetValueType.of(primitiveType)) {
+            case BOOLEAN -> (vector, row, builder) -> builder.withBoolean(entry, vector.booleans[row]);
+            case INT -> (vector, row, builder) -> builder.withInt(entry, vector.ints[row]);
+            case LONG -> (vector, row, builder) -> builder.withLong(entry, vector.longs[row]);
+            case FLOAT -> (vector, row, builder) -> builder.withFloat(entry, vector.floats[row]);
+            case DOUBLE -> (vector, row, builder) -> builder.withDouble(entry, vector.doubles[row]);
+            // chargées via Utf8StringConverter (cache du dictionnaire)
+            case STRING -> (vector, row, builder) -> builder.withString(entry, vector.strings[row]);
+            case UUID -> (vector, row, builder) -> builder.withString(entry,
+                    ParquetUtils.bytesToUuid(vector.bytes, vector.offsets[row]).toString());
+            case BYTES -> (vector, row, builder) -> builder.withBytes(entry,
+                    Arrays.copyOfRange(vector.bytes, vector.offsets[row], vector.offsets[row + 1]));
+            case DATE -> (vector, row, builder) -> builder.withDateTime(entry,
+                    LocalDate.ofEpochDay(vector.ints[row]).atStartOfDay(UTC));
+            case TIMESTAMP_MILLIS -> (vector, row, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochMilli(vector.longs[row]).atZone(UTC));
+            case TIMESTAMP_MICROS, TIME_MICROS -> (vector, row, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochSecond(0, vector.longs[row] * 1_000L).atZone(UTC));
+            case TIMESTAMP_NANOS, TIME_NANOS -> (vector, row, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochSecond(0, vector.longs[row]).atZone(UTC));
+            case INT96_TIMESTAMP -> (vector, row, builder) -> builder.withDateTime(entry,
+                    ParquetUtils.int96ToInstant(vector.bytes, vector.offsets[row]).atZone(UTC));
+            case TIME_MILLIS -> (vector, row, builder) -> builder.withDateTime(entry,
+                    Instant.ofEpochMilli(vector.ints[row]).atZone(UTC));
+            case DECIMAL_INT32 -> (vector, row, builder) -> builder.withDecimal(entry,
+                    BigDecimal.valueOf(vector.ints[row], scale));
+            case DECIMAL_INT64 -> (vector, row, builder) -> builder.withDecimal(entry,
+                    BigDecimal.valueOf(vector.longs[row], scale));
+            case DECIMAL_BINARY -> (vector, row, builder) -> builder.withDecimal(entry,
+                    ParquetUtils.binaryToBigDecimal(vector.bytes, vector.offsets[row], vector.length(row), scale));
+        };
+    }
+}
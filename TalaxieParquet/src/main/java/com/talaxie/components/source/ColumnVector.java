@@ -0,0 +1,282 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Lot de valeurs d'une colonne décodées dans des tableaux primitifs, avec bitmap des nulls.
+ * Le chargement se fait colonne par colonne, dans une boucle spécialisée par type physique.
+ */
+final class ColumnVector {
+
+    private final PrimitiveTypeName type;
+    private final int maxDefinitionLevel;
+    private final long[] nulls;
+
+    boolean[] booleans;
+    int[] ints;
+    long[] longs;
+    float[] floats;
+    double[] doubles;
+    // BINARY / FIXED_LEN_BYTE_ARRAY : valeur i = bytes[offsets[i], offsets[i + 1])
+    int[] offsets;
+    byte[] bytes;
+    // fin des octets écrits par read()
+    private int end;
+
+    // Colonnes texte : valeurs décodées par le converter (cache des entrées du dictionnaire)
+    String[] strings;
+    private final Utf8StringConverter stringConverter;
+
+    ColumnVector(final ColumnDescriptor descriptor, final int capacity, final PrimitiveConverter converter) {
+        this.type = descriptor.getPrimitiveType().getPrimitiveTypeName();
+        this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+        this.nulls = new long[(capacity + 63) >>> 6];
+        this.stringConverter = converter instanceof Utf8StringConverter strings ? strings : null;
+
+        if (stringConverter != null) {
+            this.strings = new String[capacity];
+            return;
+        }
+
+        switch (type) {
+            case BOOLEAN:
+                booleans = new boolean[capacity];
+                break;
+            case INT32:
+                ints = new int[capacity];
+                break;
+            case INT64:
+                longs = new long[capacity];
+                break;
+            case FLOAT:
+                floats = new float[capacity];
+                break;
+            case DOUBLE:
+                doubles = new double[capacity];
+                break;
+            default:
+                offsets = new int[capacity + 1];
+                bytes = new byte[capacity * 16];
+                break;
+        }
+    }
+
+    boolean isNull(final int row) {
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void setNull(final int row) {
+        nulls[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Lot entièrement nul (column chunk sans aucune valeur) : le lecteur n'est pas parcouru.
+     */
+    void fillNulls() {
+        Arrays.fill(nulls, -1L);
+    }
+
+    /**
+     * Décode {@code count} valeurs consécutives du lecteur.
+     */
+    void load(final ColumnReader reader, final int count) {
+        load(reader, count, null);
+    }
+
+    /**
+     * Décode les lignes retenues par {@code selection} (null = toutes) parmi les {@code count}
+     * valeurs suivantes du lecteur ; les autres sont passées sans être décodées.
+     * Une ligne nulle n'a pas de valeur dans la page : seul son niveau de définition est consommé.
+     */
+    void load(final ColumnReader reader, final int count, final long[] selection) {
+        Arrays.fill(nulls, 0L);
+
+        if (stringConverter != null) {
+            for (int i = 0; i < count; i++) {
+                if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                    setNull(i);
+                } else if (selection != null && !isSelected(selection, i)) {
+                    reader.skip();
+                } else {
+                    reader.writeCurrentValueToConverter();
+                    strings[i] = stringConverter.current();
+                }
+                reader.consume();
+            }
+            return;
+        }
+
+        switch (type) {
+            case BOOLEAN:
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        booleans[i] = reader.getBoolean();
+                    }
+                    reader.consume();
+                }
+                break;
+
+            case INT32:
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        ints[i] = reader.getInteger();
+                    }
+                    reader.consume();
+                }
+                break;
+
+            case INT64:
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        longs[i] = reader.getLong();
+                    }
+                    reader.consume();
+                }
+                break;
+
+            case FLOAT:
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        floats[i] = reader.getFloat();
+                    }
+                    reader.consume();
+                }
+                break;
+
+            case DOUBLE:
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        doubles[i] = reader.getDouble();
+                    }
+                    reader.consume();
+                }
+                break;
+
+            default:
+                int position = 0;
+                offsets[0] = 0;
+                for (int i = 0; i < count; i++) {
+                    if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                        setNull(i);
+                    } else if (selection != null && !isSelected(selection, i)) {
+                        reader.skip();
+                    } else {
+                        Binary value = reader.getBinary();
+                        int length = value.length();
+                        if (position + length > bytes.length) {
+                            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+                        }
+                        ByteBuffer buffer = value.toByteBuffer();
+                        buffer.get(bytes, position, length);
+                        position += length;
+                    }
+                    offsets[i + 1] = position;
+                    reader.consume();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Passe {@code count} valeurs du lecteur sans les décoder.
+     */
+    static void skip(final ColumnReader reader, final int count) {
+        final int maxDefinitionLevel = reader.getDescriptor().getMaxDefinitionLevel();
+        for (int i = 0; i < count; i++) {
+            if (reader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                reader.skip();
+            }
+            reader.consume();
+        }
+    }
+
+    /**
+     * Prépare un chargement valeur par valeur ({@link #read}), lignes croissantes.
+     */
+    void clear() {
+        Arrays.fill(nulls, 0L);
+        end = 0;
+    }
+
+    /**
+     * Décode la valeur courante du lecteur dans la ligne {@code row}, sans la consommer.
+     * Utilisé pour les colonnes du filtre, dont la valeur est déjà lue pour l'évaluer.
+     */
+    void read(final ColumnReader reader, final int row) {
+        if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+            setNull(row);
+            return;
+        }
+        if (stringConverter != null) {
+            reader.writeCurrentValueToConverter();
+            strings[row] = stringConverter.current();
+            return;
+        }
+        switch (type) {
+            case BOOLEAN:
+                booleans[row] = reader.getBoolean();
+                break;
+            case INT32:
+                ints[row] = reader.getInteger();
+                break;
+            case INT64:
+                longs[row] = reader.getLong();
+                break;
+            case FLOAT:
+                floats[row] = reader.getFloat();
+                break;
+            case DOUBLE:
+                doubles[row] = reader.getDouble();
+                break;
+            default:
+                Binary value = reader.getBinary();
+                int length = value.length();
+                if (end + length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, end + length));
+                }
+                value.toByteBuffer().get(bytes, end, length);
+                offsets[row] = end;
+                end += length;
+                offsets[row + 1] = end;
+                break;
+        }
+    }
+
+    static boolean isSelected(final long[] selection, final int row) {
+        return (selection[row >>> 6] & (1L << row)) != 0;
+    }
+
+    int length(final int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+}
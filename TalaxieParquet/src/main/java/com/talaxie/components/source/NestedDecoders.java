@@ -0,0 +1,355 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.service.ParquetSchemaConverter;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assemblage des champs imbriqués (groupes, LIST, MAP, champs répétés) directement depuis les
+ * niveaux de répétition / définition des ColumnReader, vers des records et tableaux Talend.
+ * <p>
+ * Chaque nœud du schéma lit la valeur d'une instance à partir des lecteurs de ses feuilles,
+ * positionnés sur les entrées de cette instance :
+ * <ul>
+ *     <li>un nœud absent (null ou liste vide) correspond à exactement une entrée par feuille ;</li>
+ *     <li>dans une liste, l'élément suivant commence par une entrée dont le niveau de répétition
+ *     est celui du champ répété ; un niveau inférieur termine la liste.</li>
+ * </ul>
+ * Le plan est construit une fois par fichier, comme pour {@link ColumnDecoders}.
+ */
+final class NestedDecoders {
+
+    /**
+     * Champ de premier niveau imbriqué et son plan d'assemblage.
+     */
+    static final class NestedField {
+
+        private final Schema.Entry entry;
+        private final Node node;
+
+        private NestedField(final Schema.Entry entry, final Node node) {
+            this.entry = entry;
+            this.node = node;
+        }
+
+        void decode(final ColumnReader[] readers, final Record.Builder builder) {
+            final Object value = node.read(readers);
+            if (value != null) {
+                set(builder, entry, value);
+            }
+        }
+    }
+
+    private final RecordBuilderFactory factory;
+    private final MessageType schema;
+    private final Map<String, Integer> leaves = new HashMap<>();
+
+    private NestedDecoders(final RecordBuilderFactory factory, final MessageType schema) {
+        this.factory = factory;
+        this.schema = schema;
+        final List<ColumnDescriptor> columns = schema.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            leaves.put(key(columns.get(i).getPath()), i);
+        }
+    }
+
+    /**
+     * Plan des champs imbriqués émis ; les colonnes plates restent décodées par {@link ColumnDecoders}.
+     */
+    static NestedField[] compile(final RecordBuilderFactory factory, final MessageType schema, final Schema recordSchema) {
+        final NestedDecoders compiler = new NestedDecoders(factory, schema);
+        final List<NestedField> fields = new ArrayList<>();
+
+        for (Type field : schema.getFields()) {
+            if (field.isPrimitive() && !field.isRepetition(Type.Repetition.REPEATED)) {
+                continue;
+            }
+            final Schema.Entry entry = recordSchema.getEntry(field.getName());
+            if (entry != null) {
+                fields.add(new NestedField(entry, compiler.value(field, new String[] { field.getName() },
+                        entry.getElementSchema())));
+            }
+        }
+        return fields.toArray(new NestedField[0]);
+    }
+
+    /**
+     * Colonnes lues par les champs imbriqués, dans l'ordre de {@code schema.getColumns()}.
+     */
+    static boolean[] nestedColumns(final MessageType schema) {
+        final List<ColumnDescriptor> columns = schema.getColumns();
+        final boolean[] nested = new boolean[columns.size()];
+        for (int i = 0; i < nested.length; i++) {
+            nested[i] = !ColumnDecoders.isFlat(columns.get(i));
+        }
+        return nested;
+    }
+
+    // ============================================================
+    // Compilation
+    // ============================================================
+
+    /**
+     * @param nested schéma des records pour un groupe, schéma des éléments pour une liste
+     */
+    private Node value(final Type field, final String[] path, final Schema nested) {
+        final Type element = ParquetSchemaConverter.listElement(field);
+        if (element != null) {
+            return list(field, path, element, nested);
+        }
+        if (!field.isPrimitive()) {
+            return group(field.asGroupType(), path, nested);
+        }
+        return primitive(field, path);
+    }
+
+    private Node list(final Type field, final String[] path, final Type element, final Schema elementSchema) {
+        final String[] repeatedPath;
+        final String[] elementPath;
+        final int listDefinitionLevel;
+        if (field.isRepetition(Type.Repetition.REPEATED)) {
+            // champ répété sans groupe LIST : jamais null, vide au pire
+            repeatedPath = path;
+            elementPath = path;
+            listDefinitionLevel = schema.getMaxDefinitionLevel(path) - 1;
+        } else {
+            final Type repeated = ParquetSchemaConverter.repeatedChild(field);
+            repeatedPath = child(path, repeated.getName());
+            elementPath = element == repeated ? repeatedPath : child(repeatedPath, element.getName());
+            listDefinitionLevel = schema.getMaxDefinitionLevel(path);
+        }
+
+        final Node elementNode;
+        if (element.isRepetition(Type.Repetition.REPEATED)) {
+            // l'élément est le champ répété lui-même (2 niveaux, MAP, champ répété)
+            elementNode = element.isPrimitive()
+                    ? primitive(element, elementPath)
+                    : group(element.asGroupType(), elementPath, elementSchema);
+        } else {
+            final Schema nested = ParquetSchemaConverter.listElement(element) != null
+                    ? elementSchema.getElementSchema()
+                    : elementSchema;
+            elementNode = value(element, elementPath, nested);
+        }
+
+        return new ListNode(elementNode, listDefinitionLevel,
+                schema.getMaxDefinitionLevel(repeatedPath), schema.getMaxRepetitionLevel(repeatedPath));
+    }
+
+    private Node group(final GroupType group, final String[] path, final Schema recordSchema) {
+        final Node[] children = new Node[group.getFieldCount()];
+        final Schema.Entry[] entries = new Schema.Entry[children.length];
+        for (int i = 0; i < children.length; i++) {
+            final Type child = group.getType(i);
+            entries[i] = recordSchema.getEntry(child.getName());
+            children[i] = value(child, child(path, child.getName()), entries[i].getElementSchema());
+        }
+        return new GroupNode(children, entries, recordSchema, factory, schema.getMaxDefinitionLevel(path));
+    }
+
+    private Node primitive(final Type field, final String[] path) {
+        final int leaf = leaves.get(key(path));
+        return new PrimitiveNode(leaf, schema.getMaxDefinitionLevel(path),
+                ColumnDecoders.valueReader(field.asPrimitiveType()));
+    }
+
+    private static String[] child(final String[] path, final String name) {
+        final String[] child = Arrays.copyOf(path, path.length + 1);
+        child[path.length] = name;
+        return child;
+    }
+
+    private static String key(final String[] path) {
+        return String.join("\u0000", path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(final Record.Builder builder, final Schema.Entry entry, final Object value) {
+        switch (entry.getType()) {
+            case RECORD:
+                builder.withRecord(entry, (Record) value);
+                break;
+            case ARRAY:
+                builder.withArray(entry, (List<Object>) value);
+                break;
+            case STRING:
+                builder.withString(entry, (String) value);
+                break;
+            case BYTES:
+                builder.withBytes(entry, (byte[]) value);
+                break;
+            case INT:
+                builder.withInt(entry, (Integer) value);
+                break;
+            case LONG:
+                builder.withLong(entry, (Long) value);
+                break;
+            case FLOAT:
+                builder.withFloat(entry, (Float) value);
+                break;
+            case DOUBLE:
+                builder.withDouble(entry, (Double) value);
+                break;
+            case BOOLEAN:
+                builder.withBoolean(entry, (Boolean) value);
+                break;
+            case DATETIME:
+                builder.withDateTime(entry, (ZonedDateTime) value);
+                break;
+            case DECIMAL:
+                builder.withDecimal(entry, (BigDecimal) value);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported nested entry type: " + entry);
+        }
+    }
+
+    // ============================================================
+    // Nœuds
+    // ============================================================
+
+    private abstract static class Node {
+
+        // Feuilles du nœud : [firstLeaf, endLeaf[ dans l'ordre de schema.getColumns()
+        final int firstLeaf;
+        final int endLeaf;
+
+        Node(final int firstLeaf, final int endLeaf) {
+            this.firstLeaf = firstLeaf;
+            this.endLeaf = endLeaf;
+        }
+
+        /**
+         * Valeur de l'instance courante (null si absente), entrées consommées.
+         */
+        abstract Object read(ColumnReader[] readers);
+
+        /**
+         * Instance absente : une seule entrée par feuille. Seule une valeur présente (niveau de
+         * définition maximal de la feuille) occupe une place dans les pages et doit être passée.
+         */
+        final void skip(final ColumnReader[] readers) {
+            for (int i = firstLeaf; i < endLeaf; i++) {
+                final ColumnReader reader = readers[i];
+                if (reader.getCurrentDefinitionLevel() == reader.getDescriptor().getMaxDefinitionLevel()) {
+                    reader.skip();
+                }
+                reader.consume();
+            }
+        }
+    }
+
+    private static final class PrimitiveNode extends Node {
+
+        private final int maxDefinitionLevel;
+        private final ValueReader value;
+
+        PrimitiveNode(final int leaf, final int maxDefinitionLevel, final ValueReader value) {
+            super(leaf, leaf + 1);
+            this.maxDefinitionLevel = maxDefinitionLevel;
+            this.value = value;
+        }
+
+        @Override
+        Object read(final ColumnReader[] readers) {
+            final ColumnReader reader = readers[firstLeaf];
+            if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                reader.consume();
+                return null;
+            }
+            final Object result = value.read(reader);
+            reader.consume();
+            return result;
+        }
+    }
+
+    private static final class GroupNode extends Node {
+
+        private final Node[] children;
+        private final Schema.Entry[] entries;
+        private final Schema recordSchema;
+        private final RecordBuilderFactory factory;
+        private final int definitionLevel;
+
+        GroupNode(final Node[] children, final Schema.Entry[] entries, final Schema recordSchema,
+                  final RecordBuilderFactory factory, final int definitionLevel) {
+            super(children[0].firstLeaf, children[children.length - 1].endLeaf);
+            this.children = children;
+            this.entries = entries;
+            this.recordSchema = recordSchema;
+            this.factory = factory;
+            this.definitionLevel = definitionLevel;
+        }
+
+        @Override
+        Object read(final ColumnReader[] readers) {
+            if (readers[firstLeaf].getCurrentDefinitionLevel() < definitionLevel) {
+                skip(readers);
+                return null;
+            }
+            final Record.Builder builder = factory.newRecordBuilder(recordSchema);
+            for (int i = 0; i < children.length; i++) {
+                final Object value = children[i].read(readers);
+                if (value != null) {
+                    set(builder, entries[i], value);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    private static final class ListNode extends Node {
+
+        private final Node element;
+        // niveau à partir duquel la liste existe, puis à partir duquel elle a au moins un élément
+        private final int definitionLevel;
+        private final int elementDefinitionLevel;
+        private final int repetitionLevel;
+
+        ListNode(final Node element, final int definitionLevel, final int elementDefinitionLevel,
+                 final int repetitionLevel) {
+            super(element.firstLeaf, element.endLeaf);
+            this.element = element;
+            this.definitionLevel = definitionLevel;
+            this.elementDefinitionLevel = elementDefinitionLevel;
+            this.repetitionLevel = repetitionLevel;
+        }
+
+        @Override
+        Object read(final ColumnReader[] readers) {
+            final ColumnReader driver = readers[firstLeaf];
+            final int level = driver.getCurrentDefinitionLevel();
+            if (level < definitionLevel) {
+                skip(readers);
+                return null;
+            }
+            final List<Object> values = new ArrayList<>();
+            if (level < elementDefinitionLevel) {
+                skip(readers);
+                return values;
+            }
+            // En fin de column chunk, le lecteur annonce un niveau de répétition 0
+            do {
+                values.add(element.read(readers));
+            } while (driver.getCurrentRepetitionLevel() == repetitionLevel);
+            return values;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import static java.util.Collections.singletonList;
 import static org.talend.sdk.component.api.component.Icon.IconType.CUSTOM;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.talend.sdk.component.api.component.Icon;
@@ -34,39 +35,57 @@ public class ParquetInputMapper implements Serializable {
     private final ParquetInputSchemaService service;
     private final RecordBuilderFactory recordBuilderFactory;
 
+    // Row groups attribués à ce mapper après un split (null = tout le dataset)
+    private final List<ParquetInputPartition> partitions;
+
     public ParquetInputMapper(@Option("configuration") final ParquetInputMapperConfiguration configuration,
                               final ParquetInputSchemaService service,
                               final RecordBuilderFactory recordBuilderFactory) {
+        this(configuration, service, recordBuilderFactory, null);
+    }
+
+    private ParquetInputMapper(final ParquetInputMapperConfiguration configuration,
+                               final ParquetInputSchemaService service,
+                               final RecordBuilderFactory recordBuilderFactory,
+                               final List<ParquetInputPartition> partitions) {
         this.configuration = configuration;
         this.service = service;
         this.recordBuilderFactory = recordBuilderFactory;
+        this.partitions = partitions;
     }
 
     @Assessor
     public long estimateSize() {
-        // this method should return the estimation of the dataset size
-        // it is recommended to return a byte value
-        // if you don't have the exact size you can use a rough estimation
-        return 1L;
+        // taille compressée (octets sur disque) des row groups à lire, d'après le footer
+        if (partitions != null) {
+            return ParquetInputPlanner.totalSize(partitions);
+        }
+        return ParquetInputPlanner.totalSize(ParquetInputPlanner.planSlices(configuration.getDataset()));
     }
 
     @Split
     public List<ParquetInputMapper> split(@PartitionSize final long bundles) {
-        // overall idea here is to split the work related to configuration in bundles of size "bundles"
-        //
-        // for instance if your estimateSize() returned 1000 and you can run on 10 nodes
-        // then the environment can decide to run it concurrently (10 * 100).
-        // In this case bundles = 100 and we must try to return 10 TParquetInputMapper with 1/10 of the overall work each.
-        //
-        // default implementation returns this which means it doesn't support the work to be split
-        return singletonList(this);
+        // Chaque mapper reçoit une plage disjointe de row groups d'environ "bundles" octets.
+        // Un row group n'est jamais coupé : c'est l'unité de lecture Parquet.
+        final List<ParquetInputPartition> slices = partitions != null
+                ? partitions
+                : ParquetInputPlanner.planSlices(configuration.getDataset());
+
+        // Limite et décalage portent sur l'ensemble du dataset : un seul worker
+        final boolean global = configuration.getDataset().getLimit() > 0 || configuration.getDataset().getOffset() > 0;
+        if (global || bundles <= 0 || ParquetInputPlanner.totalSize(slices) <= bundles) {
+            return singletonList(this);
+        }
+
+        final List<ParquetInputMapper> mappers = new ArrayList<>();
+        for (List<ParquetInputPartition> bundle : ParquetInputPlanner.pack(slices, bundles)) {
+            mappers.add(new ParquetInputMapper(configuration, service, recordBuilderFactory, bundle));
+        }
+        return mappers.isEmpty() ? singletonList(this) : mappers;
     }
 
     @Emitter
     public ParquetInputSource createWorker() {
-        // here we create an actual worker,
-        // you are free to rework the configuration etc but our default generated implementation
-        // propagates the partition mapper entries.
-        return new ParquetInputSource(configuration, recordBuilderFactory);
+        return new ParquetInputSource(configuration, partitions, recordBuilderFactory);
     }
 }
\ No newline at end of file
@@ -4,15 +4,46 @@
 package com.talaxie.components.source;
 
 import com.talaxie.components.dataset.ParquetInputDataset;
+import com.talaxie.components.service.ReadMode;
 import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
 import org.talend.sdk.component.api.meta.Documentation;
 
-public class ParquetInputMapperConfiguration {
+import java.io.Serializable;
+
+@GridLayout({
+        @GridLayout.Row("dataset")
+})
+@GridLayout(names = GridLayout.FormType.ADVANCED, value = {
+        @GridLayout.Row("readMode"),
+        @GridLayout.Row("batchSize"),
+        @GridLayout.Row("prefetchRowGroups"),
+        @GridLayout.Row("prefetchMemoryBudget")
+})
+public class ParquetInputMapperConfiguration implements Serializable {
 
     @Option
     @Documentation("Dataset Parquet pour la lecture.")
     private ParquetInputDataset dataset;
 
+    @Option
+    @Documentation("Accès au fichier : lectures positionnelles (CHANNEL) ou projection en mémoire (MEMORY_MAPPED).")
+    private ReadMode readMode = ReadMode.CHANNEL;
+
+    @Option
+    @Documentation("Mode vectorisé : nombre de lignes décodées par lot, colonne par colonne, dans des tableaux "
+            + "primitifs (ex : 4096). 0 : décodage valeur par valeur. Avec un filtre, seules les lignes retenues "
+            + "sont décodées pour les colonnes hors filtre.")
+    private int batchSize = 0;
+
+    @Option
+    @Documentation("Nombre de row groups lus à l'avance sur un thread dédié. 0 : lecture synchrone.")
+    private int prefetchRowGroups = 0;
+
+    @Option
+    @Documentation("Mémoire maximale occupée par les row groups lus à l'avance, en octets. Défaut : 268435456 (256 Mo).")
+    private long prefetchMemoryBudget = 268_435_456L;
+
     public ParquetInputDataset getDataset() {
         return dataset;
     }
@@ -21,4 +52,40 @@ public class ParquetInputMapperConfiguration {
         this.dataset = dataset;
         return this;
     }
-}
\ No newline at end of file
+
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+
+    public ParquetInputMapperConfiguration setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public ParquetInputMapperConfiguration setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getPrefetchRowGroups() {
+        return prefetchRowGroups;
+    }
+
+    public ParquetInputMapperConfiguration setPrefetchRowGroups(int prefetchRowGroups) {
+        this.prefetchRowGroups = prefetchRowGroups;
+        return this;
+    }
+
+    public long getPrefetchMemoryBudget() {
+        return prefetchMemoryBudget;
+    }
+
+    public ParquetInputMapperConfiguration setPrefetchMemoryBudget(long prefetchMemoryBudget) {
+        this.prefetchMemoryBudget = prefetchMemoryBudget;
+        return this;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Portion d'un fichier Parquet attribuée à un worker : un ensemble de row groups
+ * identifiés par leur offset de début dans le fichier.
+ * Un tableau d'offsets null signifie "tout le fichier".
+ * {@code skipRows} lignes sont ignorées au début du premier row group (décalage d'une lecture bornée).
+ */
+public class ParquetInputPartition implements Serializable {
+
+    private final String path;
+    private final long[] rowGroupOffsets;
+    private final long rowCount;
+    private final long byteSize;
+    private final long skipRows;
+
+    public ParquetInputPartition(final String path, final long[] rowGroupOffsets,
+                                 final long rowCount, final long byteSize) {
+        this(path, rowGroupOffsets, rowCount, byteSize, 0L);
+    }
+
+    public ParquetInputPartition(final String path, final long[] rowGroupOffsets,
+                                 final long rowCount, final long byteSize, final long skipRows) {
+        this.path = path;
+        this.rowGroupOffsets = rowGroupOffsets;
+        this.rowCount = rowCount;
+        this.byteSize = byteSize;
+        this.skipRows = skipRows;
+    }
+
+    public static ParquetInputPartition wholeFile(final String path) {
+        return new ParquetInputPartition(path, null, -1L, -1L);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long[] getRowGroupOffsets() {
+        return rowGroupOffsets;
+    }
+
+    public boolean isWholeFile() {
+        return rowGroupOffsets == null;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public long getSkipRows() {
+        return skipRows;
+    }
+
+    public ParquetInputPartition withSkipRows(final long skipRows) {
+        return new ParquetInputPartition(path, rowGroupOffsets, rowCount, byteSize, skipRows);
+    }
+
+    /**
+     * Fusionne deux partitions contiguës d'un même fichier.
+     */
+    public ParquetInputPartition merge(final ParquetInputPartition other) {
+        if (!path.equals(other.path) || isWholeFile() || other.isWholeFile() || other.skipRows > 0) {
+            throw new IllegalArgumentException("Partitions non fusionnables : " + this + " / " + other);
+        }
+        final long[] offsets = Arrays.copyOf(rowGroupOffsets, rowGroupOffsets.length + other.rowGroupOffsets.length);
+        System.arraycopy(other.rowGroupOffsets, 0, offsets, rowGroupOffsets.length, other.rowGroupOffsets.length);
+        return new ParquetInputPartition(path, offsets, rowCount + other.rowCount, byteSize + other.byteSize, skipRows);
+    }
+
+    @Override
+    public String toString() {
+        return path + (isWholeFile() ? "" : " " + Arrays.toString(rowGroupOffsets));
+    }
+}
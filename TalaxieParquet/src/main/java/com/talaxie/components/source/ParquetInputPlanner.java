@@ -0,0 +1,185 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.dataset.ParquetInputDataset;
+import com.talaxie.components.service.ParquetInputFiles;
+import com.talaxie.components.service.ParquetUtils;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Découpage d'un dataset Parquet en partitions à partir des footers :
+ * un row group est la plus petite unité de travail distribuable.
+ */
+final class ParquetInputPlanner {
+
+    private ParquetInputPlanner() {
+    }
+
+    /**
+     * Une partition par row group, pour chacun des fichiers du dataset.
+     */
+    static List<ParquetInputPartition> planRowGroups(final ParquetInputDataset dataset) {
+        final List<ParquetInputPartition> slices = new ArrayList<>();
+        for (String path : ParquetInputFiles.resolve(dataset)) {
+            final ParquetMetadata footer = ParquetUtils.readFooter(path);
+            for (BlockMetaData block : candidateBlocks(dataset, footer)) {
+                slices.add(new ParquetInputPartition(
+                        path,
+                        new long[] { block.getStartingPos() },
+                        block.getRowCount(),
+                        block.getCompressedSize()));
+            }
+        }
+        return slices;
+    }
+
+    /**
+     * Row groups à lire, après échantillonnage puis application du décalage et de la limite du dataset.
+     * Sans filtre, les nombres de lignes du footer sont exacts : les row groups entièrement avant le décalage
+     * sont écartés, le premier row group conservé porte les lignes restant à sauter, et la lecture s'arrête
+     * au row group qui atteint la limite. Avec un filtre, décalage et limite portent sur les lignes retenues
+     * et sont appliqués à la lecture.
+     */
+    static List<ParquetInputPartition> planSlices(final ParquetInputDataset dataset) {
+        List<ParquetInputPartition> slices = sample(planRowGroups(dataset), dataset);
+
+        if (dataset.getFilters() != null && !dataset.getFilters().isEmpty()) {
+            return slices;
+        }
+
+        final List<ParquetInputPartition> bounded = new ArrayList<>();
+        long toSkip = Math.max(0L, dataset.getOffset());
+        long toRead = dataset.getLimit() > 0 ? dataset.getLimit() : Long.MAX_VALUE;
+
+        for (ParquetInputPartition slice : slices) {
+            if (toRead <= 0) {
+                break;
+            }
+            if (toSkip >= slice.getRowCount()) {
+                toSkip -= slice.getRowCount();
+                continue;
+            }
+            bounded.add(toSkip > 0 ? slice.withSkipRows(toSkip) : slice);
+            toRead -= slice.getRowCount() - toSkip;
+            toSkip = 0;
+        }
+        return bounded;
+    }
+
+    /**
+     * Échantillon de row groups selon le dataset, dans l'ordre donné.
+     */
+    static <T> List<T> sample(final List<T> slices, final ParquetInputDataset dataset) {
+        final ParquetInputDataset.Sampling sampling = dataset.getSampling();
+        if (sampling == null || sampling == ParquetInputDataset.Sampling.NONE) {
+            return slices;
+        }
+
+        final List<T> sampled = new ArrayList<>();
+        if (sampling == ParquetInputDataset.Sampling.EVERY_KTH_ROW_GROUP) {
+            final int interval = Math.max(1, dataset.getSamplingInterval());
+            for (int i = 0; i < slices.size(); i += interval) {
+                sampled.add(slices.get(i));
+            }
+        } else {
+            // Tirage reproductible : le mapper et ses workers obtiennent le même échantillon
+            final Random random = new Random(dataset.getSamplingSeed());
+            for (T slice : slices) {
+                if (random.nextDouble() < dataset.getSamplingFraction()) {
+                    sampled.add(slice);
+                }
+            }
+        }
+        return sampled;
+    }
+
+    /**
+     * Partitions d'un worker sans découpage : fichiers entiers, ou row groups retenus
+     * regroupés par fichier pour une lecture bornée.
+     */
+    static List<ParquetInputPartition> plan(final ParquetInputDataset dataset) {
+        if (!dataset.isBounded()) {
+            return planFiles(dataset);
+        }
+        final List<ParquetInputPartition> slices = planSlices(dataset);
+        return slices.isEmpty() ? slices : pack(slices, Long.MAX_VALUE).get(0);
+    }
+
+    /**
+     * Row groups qui peuvent contenir des lignes du filtre, d'après les statistiques du footer.
+     */
+    static List<BlockMetaData> candidateBlocks(final ParquetInputDataset dataset, final ParquetMetadata footer) {
+        final MessageType schema = footer.getFileMetaData().getSchema();
+        final ParquetRowFilter filter = ParquetRowFilter.compile(dataset.getFilters(), schema);
+        if (filter == null) {
+            return footer.getBlocks();
+        }
+        return RowGroupFilter.filterRowGroups(filter.toFilter(), footer.getBlocks(), schema);
+    }
+
+    /**
+     * Lecture complète, sans découpage : un fichier entier par partition.
+     */
+    static List<ParquetInputPartition> planFiles(final ParquetInputDataset dataset) {
+        final List<ParquetInputPartition> files = new ArrayList<>();
+        for (String path : ParquetInputFiles.resolve(dataset)) {
+            files.add(ParquetInputPartition.wholeFile(path));
+        }
+        return files;
+    }
+
+    static long totalSize(final List<ParquetInputPartition> partitions) {
+        long size = 0;
+        for (ParquetInputPartition partition : partitions) {
+            size += Math.max(0L, partition.getByteSize());
+        }
+        return size;
+    }
+
+    /**
+     * Regroupe les row groups consécutifs en lots d'environ {@code bundleSize} octets.
+     * Chaque lot devient le travail d'un mapper ; les lots sont disjoints.
+     */
+    static List<List<ParquetInputPartition>> pack(final List<ParquetInputPartition> slices, final long bundleSize) {
+        final List<List<ParquetInputPartition>> bundles = new ArrayList<>();
+
+        List<ParquetInputPartition> current = new ArrayList<>();
+        ParquetInputPartition pending = null;
+        long currentSize = 0;
+
+        for (ParquetInputPartition slice : slices) {
+            if (pending != null && currentSize > 0 && currentSize + slice.getByteSize() > bundleSize) {
+                current.add(pending);
+                bundles.add(current);
+                current = new ArrayList<>();
+                pending = null;
+                currentSize = 0;
+            }
+
+            if (pending == null) {
+                pending = slice;
+            } else if (pending.getPath().equals(slice.getPath())) {
+                pending = pending.merge(slice);
+            } else {
+                current.add(pending);
+                pending = slice;
+            }
+            currentSize += slice.getByteSize();
+        }
+
+        if (pending != null) {
+            current.add(pending);
+            bundles.add(current);
+        }
+        return bundles;
+    }
+}
@@ -5,33 +5,35 @@ package com.talaxie.components.source;
 
 import com.talaxie.components.dataset.ParquetInputDataset;
 import com.talaxie.components.service.LocalInputFile;
+import com.talaxie.components.service.ParquetSchemaConverter;
 import com.talaxie.components.service.ParquetUtils;
+import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.column.ColumnReader;
 import org.apache.parquet.column.page.PageReadStore;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
-import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.io.api.PrimitiveConverter;
 import org.apache.parquet.schema.MessageType;
-import org.apache.parquet.schema.PrimitiveType;
-import org.apache.parquet.column.ColumnDescriptor;
-import org.apache.parquet.schema.OriginalType;
-import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
 
 import org.talend.sdk.component.api.configuration.Option;
 import org.talend.sdk.component.api.input.Producer;
 import org.talend.sdk.component.api.meta.Documentation;
 import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
 import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 @Documentation("Low-level Parquet reader without Hadoop FS, compatible with Talend Studio.")
 public class ParquetInputSource implements Serializable {
@@ -39,54 +41,227 @@ public class ParquetInputSource implements Serializable {
     private final ParquetInputMapperConfiguration configuration;
     private final RecordBuilderFactory recordBuilderFactory;
 
+    // Row groups à lire (null = tous les fichiers du dataset)
+    private final List<ParquetInputPartition> partitions;
+
     // === Parquet structures ===
+    private transient Iterator<ParquetInputPartition> pendingPartitions;
     private transient ParquetFileReader fileReader;
+    private transient RowGroupReader rowGroupReader;
+    private transient RowGroupPrefetcher prefetcher;
     private transient MessageType schema;
-    private transient PageReadStore currentGroup;
-    private transient Map<String, ColumnReader> columnReaders;
+    private transient String createdBy;
+    // Lecteurs du row group courant, dans l'ordre de schema.getColumns()
+    private transient ColumnReader[] columnReaders;
+    // Plan de décodage du fichier courant, aligné sur columnReaders (null = colonne non émise)
+    private transient ColumnDecoder[] decoders;
+    // Champs imbriqués (groupes, listes, maps), assemblés depuis les niveaux de leurs colonnes
+    private transient NestedDecoders.NestedField[] nestedFields;
+    private transient boolean[] nestedColumns;
+    // Converters par colonne (dictionnaires), alignés sur columnReaders
+    private transient PrimitiveConverter[] converters;
+    // Niveau de définition d'une valeur présente, par colonne (en dessous : null)
+    private transient int[] maxDefinitionLevels;
+    // Colonnes entièrement nulles dans le row group courant : leurs lecteurs ne sont pas parcourus
+    private transient boolean[] nullColumns;
+    // Schéma Talend des records émis, dérivé du footer une fois par fichier
+    private transient Schema recordSchema;
+    private transient ParquetRowFilter rowFilter;
     private long rowsRemaining;
 
+    // === Lecture bornée ===
+    // lignes à sauter au début de la partition courante (décalage résolu par le planificateur)
+    private transient long pendingSkipRows;
+    // lignes retenues par le filtre à sauter (décalage d'une lecture filtrée)
+    private transient long filteredToSkip;
+    private transient long emitted;
+
+    // === Mode par lots ===
+    private transient boolean batchMode;
+    private transient ColumnVector[] vectors;
+    private transient VectorDecoder[] vectorDecoders;
+    private transient int batchRow;
+    private transient int batchCount;
+    // Lecture filtrée : lignes du lot retenues par le filtre (bitmap), colonnes du filtre
+    private transient long[] selection;
+    private transient boolean[] filterColumns;
+
     public ParquetInputSource(
             @Option("configuration") final ParquetInputMapperConfiguration configuration,
+            final List<ParquetInputPartition> partitions,
             final RecordBuilderFactory recordBuilderFactory) {
 
         this.configuration = configuration;
+        this.partitions = partitions;
         this.recordBuilderFactory = recordBuilderFactory;
     }
 
     // ============================================================
-    // Init : ouverture du fichier et premier row group
+    // Init : ouverture du premier fichier et premier row group
     // ============================================================
     @PostConstruct
     public void init() {
         ParquetInputDataset dataset = configuration.getDataset();
-        String path = dataset.getPath();
+
+        List<ParquetInputPartition> toRead = partitions != null
+                ? partitions
+                : ParquetInputPlanner.plan(dataset);
+        this.pendingPartitions = toRead.iterator();
+        this.emitted = 0;
+        this.filteredToSkip = dataset.getFilters() != null && !dataset.getFilters().isEmpty()
+                ? Math.max(0L, dataset.getOffset())
+                : 0L;
 
         try {
-            LocalInputFile inputFile = new LocalInputFile(path);
-            this.fileReader = ParquetFileReader.open(inputFile);
+            loadNextRowGroup();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open Parquet file: " + dataset.getPath(), e);
+        }
+    }
 
-            ParquetMetadata footer = fileReader.getFooter();
-            this.schema = footer.getFileMetaData().getSchema();
+    /**
+     * Ouvre la partition suivante en ne gardant que ses row groups.
+     * Retourne false quand toutes les partitions ont été lues.
+     */
+    private boolean openNextPartition() throws IOException {
+        closeFileReader();
 
-            loadNextRowGroup();
+        if (!pendingPartitions.hasNext()) {
+            return false;
+        }
+
+        ParquetInputPartition partition = pendingPartitions.next();
+        String path = partition.getPath();
+        this.pendingSkipRows = partition.getSkipRows();
+        ParquetInputDataset dataset = configuration.getDataset();
+
+        ParquetReadOptions.Builder options = ParquetReadOptions.builder();
+        if (!partition.isWholeFile()) {
+            options.withOffsets(partition.getRowGroupOffsets());
+        }
+
+        // Le filtre dépend des types physiques du fichier : il est compilé avant l'ouverture
+        // pour que les row groups exclus par les statistiques, les dictionnaires ou les
+        // bloom filters (égalité / IN) ne soient jamais lus.
+        this.rowFilter = null;
+        if (dataset.getFilters() != null && !dataset.getFilters().isEmpty()) {
+            MessageType fileSchema = ParquetUtils.readFooter(path).getFileMetaData().getSchema();
+            this.rowFilter = ParquetRowFilter.compile(dataset.getFilters(), fileSchema);
+            options.withRecordFilter(rowFilter.toFilter())
+                    .useStatsFilter(true)
+                    .useDictionaryFilter(true)
+                    .useBloomFilter(true)
+                    .useColumnIndexFilter(true);
+        }
 
+        try {
+            LocalInputFile inputFile = new LocalInputFile(path, configuration.getReadMode());
+            this.fileReader = ParquetFileReader.open(inputFile, options.build());
         } catch (IOException e) {
             throw new IllegalStateException("Unable to open Parquet file: " + path, e);
         }
+
+        // Projection : seuls les column chunks demandés (et ceux du filtre) sont lus par readNextRowGroup()
+        ParquetMetadata footer = fileReader.getFooter();
+        this.createdBy = footer.getFileMetaData().getCreatedBy();
+        List<String> columns = dataset.getColumns();
+        Set<String> filterOnlyColumns = new HashSet<>();
+        if (rowFilter != null && columns != null && !columns.isEmpty()) {
+            columns = new ArrayList<>(columns);
+            for (String filterColumn : rowFilter.columns()) {
+                if (!columns.contains(filterColumn)) {
+                    columns.add(filterColumn);
+                    filterOnlyColumns.add(filterColumn);
+                }
+            }
+        }
+        this.schema = ParquetUtils.project(footer.getFileMetaData().getSchema(), columns);
+        fileReader.setRequestedSchema(schema);
+        // Row groups du fichier (après offsets et filtrage par statistiques), lus dans l'ordre
+        this.rowGroupReader = new RowGroupReader(fileReader, schema, rowFilter != null);
+
+        if (configuration.getPrefetchRowGroups() > 0) {
+            this.prefetcher = new RowGroupPrefetcher(
+                    new File(path).getName(),
+                    rowGroupReader,
+                    configuration.getPrefetchRowGroups(),
+                    configuration.getPrefetchMemoryBudget());
+        }
+
+        // Résolution des types une fois par fichier, réutilisée pour tous ses row groups
+        this.recordSchema = ParquetSchemaConverter.toTalendSchema(recordBuilderFactory, schema, filterOnlyColumns);
+        this.converters = ColumnDecoders.converters(schema, recordSchema);
+        this.decoders = ColumnDecoders.compile(schema, recordSchema, converters);
+        this.nestedFields = NestedDecoders.compile(recordBuilderFactory, schema, recordSchema);
+        this.nestedColumns = NestedDecoders.nestedColumns(schema);
+        this.maxDefinitionLevels = new int[schema.getColumns().size()];
+        for (int i = 0; i < maxDefinitionLevels.length; i++) {
+            maxDefinitionLevels[i] = schema.getColumns().get(i).getMaxDefinitionLevel();
+        }
+        if (rowFilter != null) {
+            rowFilter.bind(schema);
+        }
+
+        // Le mode par lots s'applique aux lectures de colonnes plates
+        this.batchMode = configuration.getBatchSize() > 0 && isFlat(schema);
+        if (batchMode) {
+            this.vectorDecoders = ColumnDecoders.compileVectors(schema, recordSchema);
+            this.vectors = new ColumnVector[schema.getColumns().size()];
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i] = new ColumnVector(schema.getColumns().get(i), configuration.getBatchSize(), converters[i]);
+            }
+            this.selection = null;
+            if (rowFilter != null) {
+                this.selection = new long[(configuration.getBatchSize() + 63) >>> 6];
+                this.filterColumns = new boolean[vectors.length];
+                for (int column : rowFilter.columnIndexes()) {
+                    filterColumns[column] = true;
+                }
+            }
+        }
+        this.batchRow = 0;
+        this.batchCount = 0;
+        return true;
     }
 
     private void loadNextRowGroup() throws IOException {
-        this.currentGroup = fileReader.readNextRowGroup();
+        RowGroupReader.RowGroup group = fileReader == null ? null : readRowGroup();
 
-        if (currentGroup == null) {
-            this.columnReaders = null;
-            this.rowsRemaining = 0;
-            return;
+        while (group == null) {
+            if (!openNextPartition()) {
+                this.columnReaders = null;
+                this.rowsRemaining = 0;
+                return;
+            }
+            group = readRowGroup();
         }
 
-        this.columnReaders = ParquetUtils.buildColumnReaders(schema, currentGroup);
-        this.rowsRemaining = currentGroup.getRowCount();
+        // Avec un filtre, getRowCount() ne compte que les lignes des pages retenues
+        final PageReadStore pages = group.getPages();
+        this.columnReaders = ParquetUtils.buildColumnReaders(schema, pages, createdBy, converters);
+        this.rowsRemaining = pages.getRowCount();
+
+        // Sans filtre, les statistiques du row group lu désignent les colonnes sans aucune valeur.
+        // La lecture filtrée évalue le filtre sur toutes les lignes des pages retenues : tous les
+        // lecteurs sont parcourus.
+        this.nullColumns = rowFilter == null
+                ? ParquetUtils.nullColumns(group.getBlock(), schema)
+                : new boolean[columnReaders.length];
+
+        // Décalage dans le premier row group de la partition : lignes passées sans être décodées
+        while (pendingSkipRows > 0 && rowsRemaining > 0) {
+            skipRow();
+            pendingSkipRows--;
+        }
+    }
+
+    /**
+     * Avec un filtre, seules les pages dont les plages de lignes peuvent correspondre
+     * (column index + offset index, s'ils sont présents dans le fichier) sont lues.
+     * Sans index, la lecture filtrée se ramène à la lecture complète du row group.
+     */
+    private RowGroupReader.RowGroup readRowGroup() throws IOException {
+        return prefetcher != null ? prefetcher.next() : rowGroupReader.next();
     }
 
     // ============================================================
@@ -94,104 +269,244 @@ public class ParquetInputSource implements Serializable {
     // ============================================================
     @Producer
     public Record next() {
+        final long limit = configuration.getDataset().getLimit();
+        if (limit > 0 && emitted >= limit) {
+            return null;
+        }
+        final Record record = read();
+        if (record != null) {
+            emitted++;
+        }
+        return record;
+    }
+
+    private Record read() {
         try {
-            if (columnReaders == null || rowsRemaining == 0) {
-                loadNextRowGroup();
-                if (columnReaders == null) {
-                    return null; // EOF
-                }
+            if (batchMode) {
+                return nextFromBatch();
             }
 
-            Record.Builder builder = recordBuilderFactory.newRecordBuilder();
-
-
-            for (String colName : columnReaders.keySet()) {
-                ColumnReader reader = columnReaders.get(colName);
+            while (true) {
+                if (columnReaders == null || rowsRemaining == 0) {
+                    loadNextRowGroup();
+                    if (columnReaders == null) {
+                        return null; // EOF
+                    }
+                }
 
-                ColumnDescriptor descriptor = reader.getDescriptor();
-                PrimitiveType primitiveType = descriptor.getPrimitiveType();
+                // Lignes d'un row group conservé qui ne vérifient pas le filtre,
+                // puis lignes retenues couvertes par le décalage
+                if (rowFilter == null || rowFilter.matches(columnReaders)) {
+                    if (filteredToSkip == 0) {
+                        break;
+                    }
+                    filteredToSkip--;
+                }
+                skipRow();
+            }
 
-                PrimitiveTypeName physicalType = primitiveType.getPrimitiveTypeName();
-                LogicalTypeAnnotation logicalType = primitiveType.getLogicalTypeAnnotation();
-                OriginalType originalType = primitiveType.getOriginalType(); // fallback si besoin
+            Record.Builder builder = recordBuilderFactory.newRecordBuilder(recordSchema);
 
-                switch (physicalType) {
-                    case BOOLEAN:
-                        builder.withBoolean(colName, reader.getBoolean());
-                        break;
+            final ColumnReader[] readers = columnReaders;
+            final ColumnDecoder[] plan = decoders;
+            final int[] maxLevels = maxDefinitionLevels;
+            final boolean[] nulls = nullColumns;
+            final boolean[] nested = nestedColumns;
+            for (int i = 0; i < readers.length; i++) {
+                if (nulls[i] || nested[i]) {
+                    continue;
+                }
+                final ColumnReader reader = readers[i];
+                // Valeur nulle : absente des pages, seul le niveau de définition est consommé.
+                // skip() avancerait le décodeur de valeurs et décalerait les valeurs suivantes.
+                if (reader.getCurrentDefinitionLevel() == maxLevels[i]) {
+                    if (plan[i] != null) {
+                        plan[i].decode(reader, builder);
+                    } else {
+                        reader.skip();
+                    }
+                }
+                reader.consume();
+            }
+            for (NestedDecoders.NestedField field : nestedFields) {
+                field.decode(readers, builder);
+            }
 
-                    case INT32:
-                        // DATE logique stockée en INT32 (jours depuis epoch)
-                        if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation
-                                || originalType == OriginalType.DATE) {
+            rowsRemaining--;
+            return builder.build();
 
-                            int daysSinceEpoch = reader.getInteger();
-                            LocalDate localDate = LocalDate.ofEpochDay(daysSinceEpoch);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error reading Parquet row", e);
+        }
+    }
 
-                            // Talend ne distingue pas DATE vs DATETIME, donc on met minuit
-                            ZonedDateTime zdt = localDate.atStartOfDay(ZoneId.of("UTC"));
-                            builder.withDateTime(colName, zdt);
-                        } else {
-                            builder.withInt(colName, reader.getInteger());
-                        }
-                        break;
+    /**
+     * Mode par lots : les colonnes sont décodées par paquets de batchSize lignes
+     * dans des tableaux primitifs, puis les records sont matérialisés depuis ces tableaux.
+     */
+    private Record nextFromBatch() throws IOException {
+        int row = nextSelectedRow();
+        while (row < 0) {
+            if (rowsRemaining == 0) {
+                loadNextRowGroup();
+                if (columnReaders == null) {
+                    return null; // EOF
+                }
+                if (!batchMode) {
+                    return read(); // nouveau fichier lu ligne à ligne
+                }
+            }
+            if (rowFilter == null) {
+                fillBatch();
+            } else {
+                fillFilteredBatch();
+            }
+            row = nextSelectedRow();
+        }
 
-                    case INT64:
-                        // TIMESTAMP logique stockée en INT64
-                        if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation ts) {
-                            long raw = reader.getLong();
-
-                            Instant instant;
-                            switch (ts.getUnit()) {
-                                case MILLIS:
-                                    instant = Instant.ofEpochMilli(raw);
-                                    break;
-                                case MICROS:
-                                    instant = Instant.ofEpochSecond(0, raw * 1_000L);
-                                    break;
-                                case NANOS:
-                                    instant = Instant.ofEpochSecond(0, raw);
-                                    break;
-                                default:
-                                    instant = Instant.ofEpochMilli(raw);
-                            }
-
-                            ZonedDateTime zdt = instant.atZone(ZoneId.of("UTC"));
-                            builder.withDateTime(colName, zdt);
-                        } else {
-                            builder.withLong(colName, reader.getLong());
-                        }
-                        break;
+        batchRow = row + 1;
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(recordSchema);
+        final ColumnVector[] columns = vectors;
+        final VectorDecoder[] plan = vectorDecoders;
+        for (int i = 0; i < columns.length; i++) {
+            // colonne du filtre hors projection : pas de décodeur
+            if (plan[i] != null && !columns[i].isNull(row)) {
+                plan[i].decode(columns[i], row, builder);
+            }
+        }
+        return builder.build();
+    }
 
-                    case FLOAT:
-                        builder.withFloat(colName, reader.getFloat());
-                        break;
+    private void fillBatch() {
+        final int count = (int) Math.min(configuration.getBatchSize(), rowsRemaining);
+        for (int i = 0; i < vectors.length; i++) {
+            if (nullColumns[i]) {
+                vectors[i].fillNulls();
+            } else {
+                vectors[i].load(columnReaders[i], count);
+            }
+        }
+        rowsRemaining -= count;
+        batchRow = 0;
+        batchCount = count;
+    }
 
-                    case DOUBLE:
-                        builder.withDouble(colName, reader.getDouble());
-                        break;
+    /**
+     * Lecture filtrée par lots (matérialisation tardive) :
+     * <ol>
+     *     <li>les colonnes du filtre sont évaluées d'abord, une colonne après l'autre, et seulement
+     *     pour les lignes encore retenues ; leur valeur n'est conservée que pour ces lignes ;</li>
+     *     <li>les autres colonnes ne décodent que les lignes retenues et passent les autres
+     *     sans les décoder, ou le lot entier si aucune ligne n'est retenue.</li>
+     * </ol>
+     */
+    private void fillFilteredBatch() {
+        final int count = (int) Math.min(configuration.getBatchSize(), rowsRemaining);
+        final long[] selected = selection;
+        Arrays.fill(selected, 0L);
+        for (int row = 0; row < count; row++) {
+            selected[row >>> 6] |= 1L << row;
+        }
 
-                    case BINARY:
-                        // à adapter si tu as des DECIMAL(BINARY) ou des BINARY non texte
-                        builder.withString(colName, reader.getBinary().toStringUsingUTF8());
-                        break;
+        final int[] columns = rowFilter.columnIndexes();
+        for (int k = 0; k < columns.length; k++) {
+            final ColumnReader reader = columnReaders[columns[k]];
+            final int maxLevel = maxDefinitionLevels[columns[k]];
+            final ColumnVector vector = vectorDecoders[columns[k]] != null ? vectors[columns[k]] : null;
+            if (vector != null) {
+                vector.clear();
+            }
+            for (int row = 0; row < count; row++) {
+                if (ColumnVector.isSelected(selected, row)) {
+                    if (!rowFilter.matches(k, reader)) {
+                        selected[row >>> 6] &= ~(1L << row);
+                    } else if (vector != null) {
+                        vector.read(reader, row);
+                    }
+                }
+                // valeur déjà lue par le filtre : skip() sans effet ; valeur nulle : rien à passer
+                if (reader.getCurrentDefinitionLevel() == maxLevel) {
+                    reader.skip();
+                }
+                reader.consume();
+            }
+        }
 
-                    default:
-                        System.out.println("Unsupported type: " + physicalType
-                                + " (logical=" + logicalType + ", original=" + originalType + ")");
-                        builder.withString(colName, null);
-                        break;
+        // Décalage d'une lecture filtrée : les premières lignes retenues sont écartées
+        int matching = 0;
+        for (int row = 0; row < count; row++) {
+            if (ColumnVector.isSelected(selected, row)) {
+                if (filteredToSkip > 0) {
+                    filteredToSkip--;
+                    selected[row >>> 6] &= ~(1L << row);
+                } else {
+                    matching++;
                 }
+            }
+        }
 
-                reader.consume();
+        for (int i = 0; i < vectors.length; i++) {
+            if (filterColumns[i]) {
+                continue;
+            }
+            if (matching == 0 || vectorDecoders[i] == null) {
+                ColumnVector.skip(columnReaders[i], count);
+            } else {
+                vectors[i].load(columnReaders[i], count, selected);
             }
+        }
+        rowsRemaining -= count;
+        batchRow = 0;
+        batchCount = count;
+    }
 
-            rowsRemaining--;
-            return builder.build();
+    /**
+     * Prochaine ligne à matérialiser dans le lot courant, -1 si le lot est épuisé.
+     */
+    private int nextSelectedRow() {
+        if (batchRow >= batchCount) {
+            return -1;
+        }
+        if (rowFilter == null) {
+            return batchRow;
+        }
+        int word = batchRow >>> 6;
+        long bits = selection[word] & (-1L << batchRow);
+        while (bits == 0) {
+            if (++word >= selection.length) {
+                return -1;
+            }
+            bits = selection[word];
+        }
+        final int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+        return row < batchCount ? row : -1;
+    }
 
-        } catch (Exception e) {
-            throw new IllegalStateException("Error reading Parquet row", e);
+    private static boolean isFlat(final MessageType schema) {
+        for (Type field : schema.getFields()) {
+            if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private void skipRow() {
+        for (int i = 0; i < columnReaders.length; i++) {
+            if (nullColumns[i]) {
+                continue;
+            }
+            // Colonne répétée : toutes les entrées jusqu'à la ligne suivante (niveau de répétition 0)
+            final ColumnReader reader = columnReaders[i];
+            final int maxLevel = maxDefinitionLevels[i];
+            do {
+                if (reader.getCurrentDefinitionLevel() == maxLevel) {
+                    reader.skip();
+                }
+                reader.consume();
+            } while (reader.getCurrentRepetitionLevel() != 0);
+        }
+        rowsRemaining--;
     }
 
     // ============================================================
@@ -199,11 +514,23 @@ public class ParquetInputSource implements Serializable {
     // ============================================================
     @PreDestroy
     public void release() {
+        closeFileReader();
+    }
+
+    private void closeFileReader() {
+        // Le prefetch doit être arrêté avant de fermer le fichier qu'il lit
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
         try {
             if (fileReader != null) {
                 fileReader.close();
             }
         } catch (IOException ignored) {
+        } finally {
+            fileReader = null;
+            rowGroupReader = null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import static java.util.Collections.singletonList;
+import static org.talend.sdk.component.api.component.Icon.IconType.CUSTOM;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.talend.sdk.component.api.component.Icon;
+import org.talend.sdk.component.api.component.Version;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Assessor;
+import org.talend.sdk.component.api.input.Emitter;
+import org.talend.sdk.component.api.input.PartitionMapper;
+import org.talend.sdk.component.api.input.PartitionSize;
+import org.talend.sdk.component.api.input.Split;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+//
+// Statistiques du dataset lues dans les footers uniquement : aucune page de données n'est lue.
+//
+@Version(1)
+@Icon(value = CUSTOM, custom = "ParquetInput")
+@PartitionMapper(name = "ParquetMetadataInput")
+@Documentation("Nombre de lignes, de nulls et min / max par colonne, calculés depuis les statistiques des footers Parquet.")
+public class ParquetMetadataMapper implements Serializable {
+    private final ParquetMetadataMapperConfiguration configuration;
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    public ParquetMetadataMapper(@Option("configuration") final ParquetMetadataMapperConfiguration configuration,
+                                 final RecordBuilderFactory recordBuilderFactory) {
+        this.configuration = configuration;
+        this.recordBuilderFactory = recordBuilderFactory;
+    }
+
+    @Assessor
+    public long estimateSize() {
+        // seuls les footers sont lus : rien à répartir
+        return 1L;
+    }
+
+    @Split
+    public List<ParquetMetadataMapper> split(@PartitionSize final long bundles) {
+        return singletonList(this);
+    }
+
+    @Emitter
+    public ParquetMetadataSource createWorker() {
+        return new ParquetMetadataSource(configuration, recordBuilderFactory);
+    }
+}
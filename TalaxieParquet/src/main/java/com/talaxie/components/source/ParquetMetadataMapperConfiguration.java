@@ -0,0 +1,51 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.dataset.ParquetInputDataset;
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.configuration.ui.layout.GridLayout;
+import org.talend.sdk.component.api.meta.Documentation;
+
+import java.io.Serializable;
+
+@GridLayout({
+        @GridLayout.Row("dataset"),
+        @GridLayout.Row("level")
+})
+public class ParquetMetadataMapperConfiguration implements Serializable {
+
+    public enum Level {
+        FILE,
+        ROW_GROUP
+    }
+
+    @Option
+    @Documentation("Dataset Parquet dont les footers sont lus. Les colonnes sélectionnées limitent les statistiques émises ; "
+            + "filtres et échantillonnage restreignent les row groups décrits, d'après les footers seuls. "
+            + "Décalage et limite portent sur des lignes et ne s'appliquent pas aux statistiques.")
+    private ParquetInputDataset dataset;
+
+    @Option
+    @Documentation("Granularité des statistiques : une ligne par colonne et par fichier (FILE) ou par row group (ROW_GROUP).")
+    private Level level = Level.FILE;
+
+    public ParquetInputDataset getDataset() {
+        return dataset;
+    }
+
+    public ParquetMetadataMapperConfiguration setDataset(ParquetInputDataset dataset) {
+        this.dataset = dataset;
+        return this;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public ParquetMetadataMapperConfiguration setLevel(Level level) {
+        this.level = level;
+        return this;
+    }
+}
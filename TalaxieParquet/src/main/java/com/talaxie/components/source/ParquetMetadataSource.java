@@ -0,0 +1,260 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.dataset.ParquetInputDataset;
+import com.talaxie.components.service.ParquetInputFiles;
+import com.talaxie.components.service.ParquetUtils;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+
+import org.talend.sdk.component.api.configuration.Option;
+import org.talend.sdk.component.api.input.Producer;
+import org.talend.sdk.component.api.meta.Documentation;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
+
+import javax.annotation.PostConstruct;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Documentation("Émet les statistiques des footers Parquet (une ligne par colonne, par fichier ou par row group) "
+        + "des row groups retenus par les filtres et l'échantillonnage du dataset.")
+public class ParquetMetadataSource implements Serializable {
+
+    private final ParquetMetadataMapperConfiguration configuration;
+    private final RecordBuilderFactory recordBuilderFactory;
+
+    private transient Iterator<Record> records;
+
+    private transient Schema schema;
+    private transient Schema.Entry fileEntry;
+    private transient Schema.Entry rowGroupEntry;
+    private transient Schema.Entry columnEntry;
+    private transient Schema.Entry typeEntry;
+    private transient Schema.Entry rowCountEntry;
+    private transient Schema.Entry valueCountEntry;
+    private transient Schema.Entry nullCountEntry;
+    private transient Schema.Entry minEntry;
+    private transient Schema.Entry maxEntry;
+    private transient Schema.Entry compressedSizeEntry;
+    private transient Schema.Entry uncompressedSizeEntry;
+
+    public ParquetMetadataSource(
+            @Option("configuration") final ParquetMetadataMapperConfiguration configuration,
+            final RecordBuilderFactory recordBuilderFactory) {
+
+        this.configuration = configuration;
+        this.recordBuilderFactory = recordBuilderFactory;
+    }
+
+    // ============================================================
+    // Init : lecture des footers (via le cache partagé), jamais des pages
+    // ============================================================
+    @PostConstruct
+    public void init() {
+        buildSchema();
+
+        final ParquetInputDataset dataset = configuration.getDataset();
+        final boolean perRowGroup = configuration.getLevel() == ParquetMetadataMapperConfiguration.Level.ROW_GROUP;
+        final List<Record> result = new ArrayList<>();
+
+        // Row groups que le découpage du dataset retiendrait : filtre sur les statistiques du footer
+        // puis échantillonnage, comme ParquetInputPlanner
+        final Map<String, List<RowGroup>> files = new LinkedHashMap<>();
+        for (RowGroup rowGroup : ParquetInputPlanner.sample(candidateRowGroups(dataset), dataset)) {
+            files.computeIfAbsent(rowGroup.path, path -> new ArrayList<>()).add(rowGroup);
+        }
+
+        for (Map.Entry<String, List<RowGroup>> file : files.entrySet()) {
+            final String path = file.getKey();
+            if (perRowGroup) {
+                for (RowGroup rowGroup : file.getValue()) {
+                    for (ColumnStatistics column : columns(Collections.singletonList(rowGroup.block), dataset.getColumns())) {
+                        result.add(toRecord(path, rowGroup.index, column));
+                    }
+                }
+            } else {
+                final List<BlockMetaData> blocks = new ArrayList<>();
+                for (RowGroup rowGroup : file.getValue()) {
+                    blocks.add(rowGroup.block);
+                }
+                for (ColumnStatistics column : columns(blocks, dataset.getColumns())) {
+                    result.add(toRecord(path, null, column));
+                }
+            }
+        }
+        this.records = result.iterator();
+    }
+
+    /**
+     * Row groups des fichiers du dataset pouvant contenir des lignes du filtre, avec leur position dans le fichier.
+     */
+    private static List<RowGroup> candidateRowGroups(final ParquetInputDataset dataset) {
+        final List<RowGroup> rowGroups = new ArrayList<>();
+        for (String path : ParquetInputFiles.resolve(dataset)) {
+            final ParquetMetadata footer = ParquetUtils.readFooter(path);
+            final Set<BlockMetaData> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            candidates.addAll(ParquetInputPlanner.candidateBlocks(dataset, footer));
+
+            final List<BlockMetaData> blocks = footer.getBlocks();
+            for (int i = 0; i < blocks.size(); i++) {
+                if (candidates.contains(blocks.get(i))) {
+                    rowGroups.add(new RowGroup(path, i, blocks.get(i)));
+                }
+            }
+        }
+        return rowGroups;
+    }
+
+    @Producer
+    public Record next() {
+        return records.hasNext() ? records.next() : null;
+    }
+
+    /**
+     * Statistiques agrégées par colonne sur les row groups donnés, dans l'ordre des colonnes du fichier.
+     */
+    private static List<ColumnStatistics> columns(final List<BlockMetaData> blocks, final List<String> selected) {
+        final Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+
+        for (BlockMetaData block : blocks) {
+            for (ColumnChunkMetaData chunk : block.getColumns()) {
+                final String[] path = chunk.getPath().toArray();
+                if (selected != null && !selected.isEmpty() && !selected.contains(path[0])) {
+                    continue;
+                }
+                columns.computeIfAbsent(chunk.getPath().toDotString(), name -> new ColumnStatistics(name, chunk.getPrimitiveType()))
+                        .add(block, chunk);
+            }
+        }
+        return new ArrayList<>(columns.values());
+    }
+
+    private Record toRecord(final String path, final Integer rowGroup, final ColumnStatistics column) {
+        final Record.Builder builder = recordBuilderFactory.newRecordBuilder(schema)
+                .withString(fileEntry, path)
+                .withString(columnEntry, column.name)
+                .withString(typeEntry, column.typeName())
+                .withLong(rowCountEntry, column.rowCount)
+                .withLong(valueCountEntry, column.valueCount)
+                .withLong(compressedSizeEntry, column.compressedSize)
+                .withLong(uncompressedSizeEntry, column.uncompressedSize);
+
+        if (rowGroup != null) {
+            builder.withInt(rowGroupEntry, rowGroup);
+        }
+        // Statistiques absentes d'au moins un row group : valeurs inconnues plutôt que fausses
+        if (column.complete) {
+            builder.withLong(nullCountEntry, column.statistics.getNumNulls());
+            if (column.statistics.hasNonNullValue()) {
+                builder.withString(minEntry, column.statistics.minAsString());
+                builder.withString(maxEntry, column.statistics.maxAsString());
+            }
+        }
+        return builder.build();
+    }
+
+    private void buildSchema() {
+        this.fileEntry = entry("file", Schema.Type.STRING, false);
+        this.rowGroupEntry = entry("rowGroup", Schema.Type.INT, true);
+        this.columnEntry = entry("column", Schema.Type.STRING, false);
+        this.typeEntry = entry("type", Schema.Type.STRING, false);
+        this.rowCountEntry = entry("rowCount", Schema.Type.LONG, false);
+        this.valueCountEntry = entry("valueCount", Schema.Type.LONG, false);
+        this.nullCountEntry = entry("nullCount", Schema.Type.LONG, true);
+        this.minEntry = entry("min", Schema.Type.STRING, true);
+        this.maxEntry = entry("max", Schema.Type.STRING, true);
+        this.compressedSizeEntry = entry("compressedSize", Schema.Type.LONG, false);
+        this.uncompressedSizeEntry = entry("uncompressedSize", Schema.Type.LONG, false);
+
+        this.schema = recordBuilderFactory.newSchemaBuilder(Schema.Type.RECORD)
+                .withEntry(fileEntry)
+                .withEntry(rowGroupEntry)
+                .withEntry(columnEntry)
+                .withEntry(typeEntry)
+                .withEntry(rowCountEntry)
+                .withEntry(valueCountEntry)
+                .withEntry(nullCountEntry)
+                .withEntry(minEntry)
+                .withEntry(maxEntry)
+                .withEntry(compressedSizeEntry)
+                .withEntry(uncompressedSizeEntry)
+                .build();
+    }
+
+    private Schema.Entry entry(final String name, final Schema.Type type, final boolean nullable) {
+        return recordBuilderFactory.newEntryBuilder().withName(name).withType(type).withNullable(nullable).build();
+    }
+
+    /**
+     * Row group retenu : fichier, position dans le fichier et métadonnées du footer.
+     */
+    private static final class RowGroup {
+
+        private final String path;
+        private final int index;
+        private final BlockMetaData block;
+
+        RowGroup(final String path, final int index, final BlockMetaData block) {
+            this.path = path;
+            this.index = index;
+            this.block = block;
+        }
+    }
+
+    /**
+     * Cumul des métadonnées d'une colonne sur un ou plusieurs row groups.
+     */
+    private static final class ColumnStatistics {
+
+        private final String name;
+        private final PrimitiveType type;
+        private final Statistics<?> statistics;
+        private boolean complete = true;
+        private long rowCount;
+        private long valueCount;
+        private long compressedSize;
+        private long uncompressedSize;
+
+        ColumnStatistics(final String name, final PrimitiveType type) {
+            this.name = name;
+            this.type = type;
+            this.statistics = Statistics.createStats(type);
+        }
+
+        void add(final BlockMetaData block, final ColumnChunkMetaData chunk) {
+            rowCount += block.getRowCount();
+            valueCount += chunk.getValueCount();
+            compressedSize += chunk.getTotalSize();
+            uncompressedSize += chunk.getTotalUncompressedSize();
+
+            // min / max exprimés selon le type logique (dates, timestamps, décimaux...) par minAsString()
+            final Statistics<?> chunkStatistics = chunk.getStatistics();
+            if (chunkStatistics == null || !chunkStatistics.isNumNullsSet()
+                    || (!chunkStatistics.hasNonNullValue() && chunkStatistics.getNumNulls() < chunk.getValueCount())) {
+                complete = false;
+            } else if (complete) {
+                statistics.mergeStatistics(chunkStatistics);
+            }
+        }
+
+        String typeName() {
+            final LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+            return type.getPrimitiveTypeName() + (logicalType == null ? "" : " (" + logicalType + ")");
+        }
+    }
+}
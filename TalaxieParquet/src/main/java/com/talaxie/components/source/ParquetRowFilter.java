@@ -0,0 +1,442 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.dataset.ParquetFilterCondition;
+import com.talaxie.components.dataset.ParquetFilterCondition.Operator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filtre déclaré sur le dataset (conditions combinées par ET), compilé pour le schéma d'un fichier.
+ * <ul>
+ *     <li>côté Parquet : un {@link FilterPredicate} évalué sur les statistiques min/max/null-count
+ *     du footer pour ne jamais lire les row groups qui ne peuvent pas correspondre ;</li>
+ *     <li>côté lignes : la même condition évaluée sur les valeurs brutes des colonnes, car les
+ *     row groups conservés contiennent aussi des lignes non concernées.</li>
+ * </ul>
+ */
+final class ParquetRowFilter {
+
+    private final FilterPredicate predicate;
+    private final List<RowCondition> conditions;
+
+    // Après bind() : colonnes du filtre, les types à largeur fixe avant les BINARY (moins coûteux
+    // à comparer), et leurs conditions
+    private int[] columnIndexes;
+    private RowCondition[][] columnConditions;
+
+    private ParquetRowFilter(final FilterPredicate predicate, final List<RowCondition> conditions) {
+        this.predicate = predicate;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Compile les conditions pour le schéma donné. Retourne null en l'absence de filtre.
+     */
+    static ParquetRowFilter compile(final List<ParquetFilterCondition> filters, final MessageType fileSchema) {
+        if (filters == null || filters.isEmpty()) {
+            return null;
+        }
+
+        FilterPredicate predicate = null;
+        final List<RowCondition> conditions = new ArrayList<>();
+
+        for (ParquetFilterCondition filter : filters) {
+            final PrimitiveType type = primitiveColumn(fileSchema, filter.getColumn());
+            final List<Comparable<?>> values = parseValues(type, filter);
+
+            final FilterPredicate columnPredicate = toPredicate(type, filter.getOperator(), values);
+            predicate = predicate == null ? columnPredicate : FilterApi.and(predicate, columnPredicate);
+
+            conditions.add(new RowCondition(filter.getColumn(), type,
+                    fileSchema.getMaxDefinitionLevel(filter.getColumn()), filter.getOperator(), values));
+        }
+
+        return new ParquetRowFilter(predicate, conditions);
+    }
+
+    FilterCompat.Filter toFilter() {
+        return FilterCompat.get(predicate);
+    }
+
+    /**
+     * Colonnes nécessaires à l'évaluation ligne à ligne.
+     */
+    Set<String> columns() {
+        final Set<String> columns = new LinkedHashSet<>();
+        for (RowCondition condition : conditions) {
+            columns.add(condition.column);
+        }
+        return columns;
+    }
+
+    /**
+     * Associe chaque condition à la position de sa colonne dans le schéma de lecture.
+     */
+    void bind(final MessageType readSchema) {
+        final List<ColumnDescriptor> columns = readSchema.getColumns();
+        for (RowCondition condition : conditions) {
+            condition.index = -1;
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).getPath()[0].equals(condition.column)) {
+                    condition.index = i;
+                    break;
+                }
+            }
+            if (condition.index < 0) {
+                throw new IllegalStateException("Filter column not read: " + condition.column);
+            }
+        }
+
+        final Map<Integer, List<RowCondition>> byColumn = new LinkedHashMap<>();
+        for (boolean binary : new boolean[] { false, true }) {
+            for (RowCondition condition : conditions) {
+                if ((condition.physicalType.javaType == Binary.class) == binary) {
+                    byColumn.computeIfAbsent(condition.index, index -> new ArrayList<>()).add(condition);
+                }
+            }
+        }
+        this.columnIndexes = new int[byColumn.size()];
+        this.columnConditions = new RowCondition[byColumn.size()][];
+        int position = 0;
+        for (Map.Entry<Integer, List<RowCondition>> column : byColumn.entrySet()) {
+            columnIndexes[position] = column.getKey();
+            columnConditions[position++] = column.getValue().toArray(new RowCondition[0]);
+        }
+    }
+
+    /**
+     * Position des colonnes du filtre dans le schéma de lecture, dans l'ordre d'évaluation.
+     */
+    int[] columnIndexes() {
+        return columnIndexes;
+    }
+
+    /**
+     * Évalue la ligne courante sans consommer les valeurs des lecteurs.
+     */
+    boolean matches(final ColumnReader[] readers) {
+        for (int i = 0; i < columnIndexes.length; i++) {
+            if (!matches(i, readers[columnIndexes[i]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Évalue les conditions de la {@code column}-ième colonne de {@link #columnIndexes()}
+     * sur la valeur courante de son lecteur, sans la consommer.
+     */
+    boolean matches(final int column, final ColumnReader reader) {
+        for (RowCondition condition : columnConditions[column]) {
+            if (!condition.test(reader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================================================
+    // Compilation
+    // ============================================================
+
+    private static PrimitiveType primitiveColumn(final MessageType schema, final String column) {
+        if (column == null || !schema.containsField(column)) {
+            throw new IllegalStateException("Filter column not found in Parquet schema: " + column);
+        }
+        final Type type = schema.getType(column);
+        if (!type.isPrimitive() || type.isRepetition(Type.Repetition.REPEATED)) {
+            throw new IllegalStateException("Filter column must be a primitive, non repeated column: " + column);
+        }
+        return type.asPrimitiveType();
+    }
+
+    private static List<Comparable<?>> parseValues(final PrimitiveType type, final ParquetFilterCondition filter) {
+        final List<Comparable<?>> values = new ArrayList<>();
+        final Operator operator = filter.getOperator();
+
+        if (operator == Operator.IS_NULL || operator == Operator.IS_NOT_NULL) {
+            return values;
+        }
+        if (filter.getValue() == null) {
+            throw new IllegalStateException("Missing value for filter: " + filter);
+        }
+
+        if (operator == Operator.IN) {
+            for (String item : filter.getValue().split(",")) {
+                values.add(parseValue(type, item.trim()));
+            }
+        } else {
+            values.add(parseValue(type, filter.getValue()));
+        }
+        return values;
+    }
+
+    private static Comparable<?> parseValue(final PrimitiveType type, final String text) {
+        final LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+            return parseDecimal(type, decimal.getScale(), text.trim());
+        }
+
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return Boolean.valueOf(text.trim());
+
+            case INT32:
+                if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+                    return (int) LocalDate.parse(text.trim()).toEpochDay();
+                }
+                return Integer.valueOf(text.trim());
+
+            case INT64:
+                if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation ts) {
+                    return toTimestamp(ts.getUnit(), text.trim());
+                }
+                return Long.valueOf(text.trim());
+
+            case FLOAT:
+                return Float.valueOf(text.trim());
+
+            case DOUBLE:
+                return Double.valueOf(text.trim());
+
+            case BINARY:
+                return Binary.fromString(text);
+
+            default:
+                throw new IllegalStateException("Unsupported filter column type: " + type);
+        }
+    }
+
+    /**
+     * Valeur décimale encodée comme dans le fichier : entier non mis à l'échelle (INT32, INT64)
+     * ou complément à deux big-endian (BINARY, FIXED_LEN_BYTE_ARRAY complété par le signe),
+     * pour être comparée aux statistiques, dictionnaires et bloom filters.
+     */
+    private static Comparable<?> parseDecimal(final PrimitiveType type, final int scale, final String text) {
+        try {
+            final BigInteger unscaled = new BigDecimal(text).setScale(scale, RoundingMode.UNNECESSARY).unscaledValue();
+
+            switch (type.getPrimitiveTypeName()) {
+                case INT32:
+                    return unscaled.intValueExact();
+
+                case INT64:
+                    return unscaled.longValueExact();
+
+                case BINARY:
+                    return Binary.fromConstantByteArray(unscaled.toByteArray());
+
+                case FIXED_LEN_BYTE_ARRAY:
+                    final byte[] bytes = unscaled.toByteArray();
+                    final int length = type.getTypeLength();
+                    if (bytes.length > length) {
+                        throw new ArithmeticException("Overflow");
+                    }
+                    final byte[] fixed = new byte[length];
+                    Arrays.fill(fixed, 0, length - bytes.length, unscaled.signum() < 0 ? (byte) -1 : 0);
+                    System.arraycopy(bytes, 0, fixed, length - bytes.length, bytes.length);
+                    return Binary.fromConstantByteArray(fixed);
+
+                default:
+                    throw new IllegalStateException("Unsupported filter column type: " + type);
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalStateException("Invalid decimal filter value for " + type + ": " + text, e);
+        }
+    }
+
+    private static long toTimestamp(final LogicalTypeAnnotation.TimeUnit unit, final String text) {
+        final Instant instant = text.indexOf('T') > 0
+                ? Instant.parse(text)
+                : LocalDate.parse(text).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        switch (unit) {
+            case MICROS:
+                return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000L;
+            case NANOS:
+                return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+            case MILLIS:
+            default:
+                return instant.toEpochMilli();
+        }
+    }
+
+    private static FilterPredicate toPredicate(final PrimitiveType type, final Operator operator,
+                                               final List<Comparable<?>> values) {
+        final String path = type.getName();
+
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return equality(FilterApi.booleanColumn(path), operator, values);
+            case INT32:
+                return ordered(FilterApi.intColumn(path), operator, values);
+            case INT64:
+                return ordered(FilterApi.longColumn(path), operator, values);
+            case FLOAT:
+                return ordered(FilterApi.floatColumn(path), operator, values);
+            case DOUBLE:
+                return ordered(FilterApi.doubleColumn(path), operator, values);
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+                return ordered(FilterApi.binaryColumn(path), operator, values);
+            default:
+                throw new IllegalStateException("Unsupported filter column type: " + type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+    FilterPredicate ordered(final C column, final Operator operator, final List<Comparable<?>> values) {
+        final T value = values.isEmpty() ? null : (T) values.get(0);
+
+        switch (operator) {
+            case LESS_THAN:
+                return FilterApi.lt(column, value);
+            case LESS_OR_EQUAL:
+                return FilterApi.ltEq(column, value);
+            case GREATER_THAN:
+                return FilterApi.gt(column, value);
+            case GREATER_OR_EQUAL:
+                return FilterApi.gtEq(column, value);
+            default:
+                return equality(column, operator, values);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsEqNotEq>
+    FilterPredicate equality(final C column, final Operator operator, final List<Comparable<?>> values) {
+        switch (operator) {
+            case EQUALS:
+                return FilterApi.eq(column, (T) values.get(0));
+            case NOT_EQUALS:
+                return FilterApi.notEq(column, (T) values.get(0));
+            case IS_NULL:
+                return FilterApi.eq(column, (T) null);
+            case IS_NOT_NULL:
+                return FilterApi.notEq(column, (T) null);
+            case IN:
+                FilterPredicate anyOf = null;
+                for (Comparable<?> value : values) {
+                    final FilterPredicate eq = FilterApi.eq(column, (T) value);
+                    anyOf = anyOf == null ? eq : FilterApi.or(anyOf, eq);
+                }
+                return anyOf;
+            default:
+                throw new IllegalStateException("Unsupported operator " + operator + " for column " + column.getColumnPath());
+        }
+    }
+
+    // ============================================================
+    // Évaluation ligne à ligne
+    // ============================================================
+
+    private static final class RowCondition {
+
+        private final String column;
+        private final PrimitiveType.PrimitiveTypeName physicalType;
+        private final int maxDefinitionLevel;
+        private final Operator operator;
+        private final Comparator<Object> comparator;
+        private final Object[] values;
+        private int index;
+
+        @SuppressWarnings("unchecked")
+        RowCondition(final String column, final PrimitiveType type, final int maxDefinitionLevel,
+                     final Operator operator, final List<Comparable<?>> values) {
+            this.column = column;
+            this.physicalType = type.getPrimitiveTypeName();
+            this.maxDefinitionLevel = maxDefinitionLevel;
+            this.operator = operator;
+            this.comparator = (Comparator<Object>) (Comparator<?>) type.comparator();
+            this.values = values.toArray();
+        }
+
+        boolean test(final ColumnReader reader) {
+            if (reader.getCurrentDefinitionLevel() < maxDefinitionLevel) {
+                return operator == Operator.IS_NULL;
+            }
+
+            switch (operator) {
+                case IS_NULL:
+                    return false;
+                case IS_NOT_NULL:
+                    return true;
+                case IN:
+                    final Object current = read(reader);
+                    for (Object value : values) {
+                        if (comparator.compare(current, value) == 0) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return accept(comparator.compare(read(reader), values[0]));
+            }
+        }
+
+        private boolean accept(final int cmp) {
+            switch (operator) {
+                case EQUALS:
+                    return cmp == 0;
+                case NOT_EQUALS:
+                    return cmp != 0;
+                case LESS_THAN:
+                    return cmp < 0;
+                case LESS_OR_EQUAL:
+                    return cmp <= 0;
+                case GREATER_THAN:
+                    return cmp > 0;
+                case GREATER_OR_EQUAL:
+                    return cmp >= 0;
+                default:
+                    return false;
+            }
+        }
+
+        private Object read(final ColumnReader reader) {
+            switch (physicalType) {
+                case BOOLEAN:
+                    return reader.getBoolean();
+                case INT32:
+                    return reader.getInteger();
+                case INT64:
+                    return reader.getLong();
+                case FLOAT:
+                    return reader.getFloat();
+                case DOUBLE:
+                    return reader.getDouble();
+                default:
+                    return reader.getBinary();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * Lecture anticipée des row groups sur un thread dédié.
+ * Pendant que le thread émetteur décode le row group courant, les suivants sont lus
+ * (I/O des column chunks) dans la limite d'un nombre de row groups et d'un budget mémoire.
+ * Le lecteur Parquet n'est manipulé que par le thread de prefetch.
+ */
+final class RowGroupPrefetcher implements AutoCloseable {
+
+    interface RowGroupSupplier {
+
+        /**
+         * Taille (octets lus) du prochain row group rendu par {@link #read()}, 0 en fin de fichier.
+         */
+        long nextSize();
+
+        /**
+         * Row group suivant, null en fin de fichier. Un row group sans pages n'a aucune ligne à lire.
+         */
+        RowGroupReader.RowGroup read() throws IOException;
+    }
+
+    private final RowGroupSupplier supplier;
+    private final int maxRowGroups;
+    private final long memoryBudget;
+    private final Thread thread;
+
+    private final ArrayDeque<RowGroupReader.RowGroup> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean finished;
+    private boolean closed;
+    private Throwable failure;
+
+    RowGroupPrefetcher(final String name, final RowGroupSupplier supplier,
+                       final int maxRowGroups, final long memoryBudget) {
+        this.supplier = supplier;
+        this.maxRowGroups = Math.max(1, maxRowGroups);
+        this.memoryBudget = memoryBudget;
+        this.thread = new Thread(this::run, "parquet-prefetch-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final long size = supplier.nextSize();
+
+                synchronized (this) {
+                    // Au moins un row group est toujours autorisé pour garantir la progression
+                    while (!closed && !queue.isEmpty()
+                            && (queue.size() >= maxRowGroups || queuedBytes + size > memoryBudget)) {
+                        wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                }
+
+                final RowGroupReader.RowGroup group = supplier.read();
+
+                synchronized (this) {
+                    if (group == null) {
+                        finished = true;
+                        notifyAll();
+                        return;
+                    }
+                    // Row group écarté par le column index : rien à transmettre
+                    if (group.getPages() != null) {
+                        queue.add(group);
+                        queuedBytes += group.getSize();
+                        notifyAll();
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            synchronized (this) {
+                failure = t;
+                finished = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Row group suivant contenant des lignes à lire, ou null en fin de fichier.
+     */
+    synchronized RowGroupReader.RowGroup next() throws IOException {
+        try {
+            while (queue.isEmpty() && !finished) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for prefetched row group", e);
+        }
+
+        if (!queue.isEmpty()) {
+            final RowGroupReader.RowGroup group = queue.poll();
+            queuedBytes -= group.getSize();
+            notifyAll();
+            return group;
+        }
+        if (failure != null) {
+            throw new IOException("Error while prefetching row group", failure);
+        }
+        return null;
+    }
+
+    /**
+     * Arrête le prefetch et attend la fin de la lecture en cours, avant fermeture du fichier.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import com.talaxie.components.service.ParquetUtils;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lecture des row groups retenus d'un fichier, un par un et dans l'ordre de {@code getRowGroups()}.
+ * Chaque row group est rendu avec ses métadonnées : statistiques et taille sont toujours celles
+ * du row group effectivement lu, même quand la lecture filtrée en écarte.
+ */
+final class RowGroupReader implements RowGroupPrefetcher.RowGroupSupplier {
+
+    /**
+     * Row group lu : métadonnées du footer, pages lues et taille des column chunks lus.
+     */
+    static final class RowGroup {
+
+        private final BlockMetaData block;
+        private final PageReadStore pages;
+        private final long size;
+
+        RowGroup(final BlockMetaData block, final PageReadStore pages, final long size) {
+            this.block = block;
+            this.pages = pages;
+            this.size = size;
+        }
+
+        BlockMetaData getBlock() {
+            return block;
+        }
+
+        /**
+         * Pages lues, null si le row group ne contient aucune ligne à lire
+         * (row group vide, ou aucune page retenue par le column index).
+         */
+        PageReadStore getPages() {
+            return pages;
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+
+    private final ParquetFileReader reader;
+    private final boolean filtered;
+    private final List<BlockMetaData> blocks;
+    private final long[] sizes;
+    private int index;
+
+    /**
+     * @param filtered lecture page par page selon le column index (filtre des options du lecteur)
+     */
+    RowGroupReader(final ParquetFileReader reader, final MessageType requestedSchema, final boolean filtered) {
+        this.reader = reader;
+        this.filtered = filtered;
+        this.blocks = reader.getRowGroups();
+        this.sizes = ParquetUtils.rowGroupSizes(blocks, requestedSchema);
+    }
+
+    /**
+     * Row group suivant contenant des lignes à lire, null en fin de fichier.
+     */
+    RowGroup next() throws IOException {
+        RowGroup group = read();
+        while (group != null && group.getPages() == null) {
+            group = read();
+        }
+        return group;
+    }
+
+    @Override
+    public long nextSize() {
+        return index < sizes.length ? sizes[index] : 0L;
+    }
+
+    @Override
+    public RowGroup read() throws IOException {
+        if (index >= blocks.size()) {
+            return null;
+        }
+        final int current = index++;
+        final BlockMetaData block = blocks.get(current);
+
+        PageReadStore pages = null;
+        if (block.getRowCount() > 0) {
+            pages = filtered ? reader.readFilteredRowGroup(current) : reader.readRowGroup(current);
+        }
+        return new RowGroup(block, pages == null || pages.getRowCount() == 0 ? null : pages, sizes[current]);
+    }
+}
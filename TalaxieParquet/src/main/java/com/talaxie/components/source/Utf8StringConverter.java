@@ -0,0 +1,54 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.PrimitiveConverter;
+
+/**
+ * Décodage UTF-8 d'une colonne BINARY avec cache par entrée de dictionnaire.
+ * Pour les pages encodées par dictionnaire, chaque entrée n'est décodée en String qu'une fois
+ * par column chunk, puis partagée par toutes les lignes qui y font référence.
+ */
+final class Utf8StringConverter extends PrimitiveConverter {
+
+    private Dictionary dictionary;
+    private String[] cache;
+    private String current;
+
+    @Override
+    public boolean hasDictionarySupport() {
+        return true;
+    }
+
+    @Override
+    public void setDictionary(final Dictionary dictionary) {
+        // Appelé à l'ouverture de chaque column chunk encodé par dictionnaire
+        this.dictionary = dictionary;
+        this.cache = new String[dictionary.getMaxId() + 1];
+    }
+
+    @Override
+    public void addValueFromDictionary(final int dictionaryId) {
+        String value = cache[dictionaryId];
+        if (value == null) {
+            value = dictionary.decodeToBinary(dictionaryId).toStringUsingUTF8();
+            cache[dictionaryId] = value;
+        }
+        current = value;
+    }
+
+    @Override
+    public void addBinary(final Binary value) {
+        current = value.toStringUsingUTF8();
+    }
+
+    /**
+     * Valeur poussée par le dernier {@code ColumnReader.writeCurrentValueToConverter()}.
+     */
+    String current() {
+        return current;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import org.apache.parquet.column.ColumnReader;
+
+/**
+ * Lecture de la valeur courante d'une colonne sous forme d'objet Talend (String, Integer, ZonedDateTime...),
+ * pour les valeurs qui ne sont pas posées directement dans un builder : éléments de listes imbriquées.
+ * Comme pour {@link ColumnDecoder}, n'est appelé que pour des valeurs présentes.
+ */
+@FunctionalInterface
+interface ValueReader {
+
+    Object read(ColumnReader reader);
+}
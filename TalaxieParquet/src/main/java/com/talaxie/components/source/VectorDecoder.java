@@ -0,0 +1,16 @@
+/*
+ * Développé par : Hervé Ciaravolo / Red-belt
+ */
+package com.talaxie.components.source;
+
+import org.talend.sdk.component.api.record.Record;
+
+/**
+ * Matérialisation d'une valeur d'un {@link ColumnVector} vers le record Talend (mode par lots).
+ * Les valeurs nulles sont traitées en amont : le décodeur n'est appelé que pour des valeurs présentes.
+ */
+@FunctionalInterface
+interface VectorDecoder {
+
+    void decode(ColumnVector vector, int row, Record.Builder builder);
+}
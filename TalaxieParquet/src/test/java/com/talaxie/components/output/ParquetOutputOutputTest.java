@@ -3,12 +3,42 @@ package com.talaxie.components.output;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.talaxie.components.dataset.ParquetFilterCondition;
+import com.talaxie.components.dataset.ParquetInputDataset;
+import com.talaxie.components.dataset.ParquetOutputDataset;
+import com.talaxie.components.service.FsyncPolicy;
+import com.talaxie.components.service.LocalInputFile;
+import com.talaxie.components.service.ParquetUtils;
+import com.talaxie.components.source.ParquetInputMapper;
+import com.talaxie.components.source.ParquetInputMapperConfiguration;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Binary;
 import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.talend.sdk.component.api.record.Record;
+import org.talend.sdk.component.api.record.Schema;
+import org.talend.sdk.component.api.service.record.RecordBuilderFactory;
 import org.talend.sdk.component.junit.JoinInputFactory;
 import org.talend.sdk.component.junit.SimpleComponentRule;
 import org.talend.sdk.component.runtime.output.Processor;
@@ -45,4 +75,476 @@ public class ParquetOutputOutputTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testNativeWriterMatchesAvroWriter() throws IOException {
+        final List<Record> input = createRecords(100);
+
+        final List<List<Record>> results = new ArrayList<>();
+        for (boolean nativeWriter : new boolean[] { false, true }) {
+            final File file = Files.createTempFile("test-output", ".parquet").toFile();
+            file.deleteOnExit();
+
+            final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                    .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true))
+                    .setNativeWriter(nativeWriter);
+            write(configuration, input);
+            results.add(read(file));
+            file.delete();
+        }
+
+        final List<Record> avro = results.get(0);
+        final List<Record> direct = results.get(1);
+        assertEquals(100, direct.size());
+        assertEquals(avro.get(0).getSchema(), direct.get(0).getSchema());
+        for (int i = 0; i < direct.size(); i++) {
+            assertEquals(avro.get(i).getInt("id"), direct.get(i).getInt("id"));
+            assertEquals(avro.get(i).getString("name"), direct.get(i).getString("name"));
+            assertEquals(input.get(i).getDateTime("updated").toInstant(), direct.get(i).getDateTime("updated").toInstant());
+        }
+        assertNull("Valeur nulle écrite comme absente", direct.get(0).getString("name"));
+        assertEquals(0, new BigDecimal("12.5").compareTo(direct.get(1).getDecimal("amount")));
+    }
+
+    @Test
+    public void testAvroWriterEncodesDecimalAndZonedDateTime() throws IOException {
+        final File file = Files.createTempFile("test-output-avro-types", ".parquet").toFile();
+        file.deleteOnExit();
+
+        final List<Record> input = createRecords(3);
+        write(new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true)), input);
+
+        final List<Record> records = read(file);
+        // DECIMAL écrit en valeur non mise à l'échelle (bytes + decimal), et non en texte
+        assertFalse(records.get(0).getOptionalDecimal("amount").isPresent());
+        assertEquals(0, new BigDecimal("25").compareTo(records.get(2).getDecimal("amount")));
+        // ZonedDateTime converti en timestamp-millis, et non plus écrit comme nul
+        for (int i = 0; i < 3; i++) {
+            assertEquals(input.get(i).getDateTime("updated").toInstant(), records.get(i).getDateTime("updated").toInstant());
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testDecimalOutsideColumnTypeRejected() {
+        // decimal(38, 18) : 20 chiffres entiers et 18 décimales au plus, sans arrondi
+        assertEquals(new BigDecimal("1.5").movePointRight(18).toBigInteger(),
+                new java.math.BigInteger(RecordValues.toUnscaledBytes(new BigDecimal("1.50"))));
+        assertEquals(new java.math.BigInteger("-99999999999999999999999999999999999999"),
+                new java.math.BigInteger(RecordValues.toUnscaledBytes(new BigDecimal("-99999999999999999999.999999999999999999"))));
+        for (String value : asList("0.0000000000000000001", "100000000000000000000")) {
+            try {
+                RecordValues.toUnscaledBytes(new BigDecimal(value));
+                fail("Valeur hors du decimal(38, 18) acceptée : " + value);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(value));
+            }
+        }
+    }
+
+    @Test
+    public void testWritersHandleEveryEntryType() throws IOException {
+        final RecordBuilderFactory factory = COMPONENT_FACTORY.findService(RecordBuilderFactory.class);
+        final Schema schema = factory.newSchemaBuilder(Schema.Type.RECORD)
+                .withEntry(entry(factory, "l", Schema.Type.LONG))
+                .withEntry(entry(factory, "f", Schema.Type.FLOAT))
+                .withEntry(entry(factory, "d", Schema.Type.DOUBLE))
+                .withEntry(entry(factory, "b", Schema.Type.BOOLEAN))
+                .withEntry(entry(factory, "bytes", Schema.Type.BYTES))
+                .build();
+
+        final List<Record> input = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Record.Builder builder = factory.newRecordBuilder(schema);
+            // Une ligne sur deux sans valeurs : champs absents du fichier
+            if (i % 2 == 0) {
+                builder.withLong("l", 1L << 40 | i)
+                        .withFloat("f", i + 0.5f)
+                        .withDouble("d", i / 3.0)
+                        .withBoolean("b", i % 4 == 0)
+                        .withBytes("bytes", ("v" + i).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            }
+            input.add(builder.build());
+        }
+
+        for (boolean nativeWriter : new boolean[] { false, true }) {
+            final File file = Files.createTempFile("test-output-types", ".parquet").toFile();
+            file.deleteOnExit();
+            write(new ParquetOutputConfiguration()
+                    .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true))
+                    .setNativeWriter(nativeWriter), input);
+
+            final List<Record> records = read(file);
+            assertEquals(10, records.size());
+            for (int i = 0; i < 10; i++) {
+                final Record record = records.get(i);
+                if (i % 2 == 0) {
+                    assertEquals(1L << 40 | i, record.getLong("l"));
+                    assertEquals(i + 0.5f, record.getFloat("f"), 0f);
+                    assertEquals(i / 3.0, record.getDouble("d"), 0d);
+                    assertEquals(i % 4 == 0, record.getBoolean("b"));
+                    // BINARY sans annotation : relu comme texte
+                    assertEquals("v" + i, record.getString("bytes"));
+                } else {
+                    assertFalse(record.getOptionalLong("l").isPresent());
+                    assertFalse(record.getOptionalBoolean("b").isPresent());
+                    assertNull(record.getString("bytes"));
+                }
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testAvroPlanRebuiltWhenSchemaChanges() throws IOException {
+        final RecordBuilderFactory factory = COMPONENT_FACTORY.findService(RecordBuilderFactory.class);
+        final Schema.Entry id = entry(factory, "id", Schema.Type.INT);
+        final Schema.Entry name = entry(factory, "name", Schema.Type.STRING);
+        final Schema first = factory.newSchemaBuilder(Schema.Type.RECORD).withEntry(id).withEntry(name).build();
+        // Mêmes colonnes dans un autre ordre : le plan doit suivre les positions du nouveau schéma
+        final Schema reordered = factory.newSchemaBuilder(Schema.Type.RECORD).withEntry(name).withEntry(id).build();
+
+        final List<Record> input = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            input.add(factory.newRecordBuilder(i < 3 ? first : reordered)
+                    .withInt(id, i).withString(name, "Person" + i).build());
+        }
+        // Retour au premier schéma, avec un nombre stocké en texte : converti comme avant les lectures typées
+        input.add(textRecord(first, 6, "Person6"));
+
+        final File file = Files.createTempFile("test-output-schema-change", ".parquet").toFile();
+        file.deleteOnExit();
+        write(new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true)), input);
+
+        final List<Record> records = read(file);
+        assertEquals(7, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, records.get(i).getInt("id"));
+            assertEquals("Person" + i, records.get(i).getString("name"));
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testEntriesStoredAsTextConvertedByBothWriters() throws IOException {
+        final RecordBuilderFactory factory = COMPONENT_FACTORY.findService(RecordBuilderFactory.class);
+        final Schema schema = factory.newSchemaBuilder(Schema.Type.RECORD)
+                .withEntry(entry(factory, "id", Schema.Type.INT))
+                .withEntry(entry(factory, "name", Schema.Type.STRING))
+                .build();
+        final List<Record> input = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            input.add(textRecord(schema, i, "Person" + i));
+        }
+
+        // Lecture de chaque entrée choisie sur le premier record : conversion du texte, sans accesseur typé
+        for (boolean nativeWriter : new boolean[] { false, true }) {
+            final File file = Files.createTempFile("test-output-text-values", ".parquet").toFile();
+            file.deleteOnExit();
+            write(new ParquetOutputConfiguration()
+                    .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true))
+                    .setNativeWriter(nativeWriter), input);
+
+            final List<Record> records = read(file);
+            assertEquals(3, records.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, records.get(i).getInt("id"));
+                assertEquals("Person" + i, records.get(i).getString("name"));
+            }
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testBufferedWriteBehindOutput() throws IOException {
+        final List<Record> input = createRecords(5000);
+        final File file = Files.createTempFile("test-output-buffered", ".parquet").toFile();
+        file.deleteOnExit();
+
+        // Tampon plus petit que les pages et row groups : écritures fractionnées, différées, fsync par row group
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true))
+                .setRowGroupSize(16 * 1024)
+                .setWriteBufferSize(1024)
+                .setWriteBehind(true)
+                .setFsyncPolicy(FsyncPolicy.PER_ROW_GROUP);
+        write(configuration, input);
+
+        final List<Record> records = read(file);
+        assertEquals(5000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, records.get(i).getInt("id"));
+        }
+        assertEquals("Person4999", records.get(4999).getString("name"));
+        file.delete();
+    }
+
+    @Test
+    public void testBloomFilterOutput() throws IOException {
+        final File file = Files.createTempFile("test-output-bloom", ".parquet").toFile();
+        file.deleteOnExit();
+
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(file.getAbsolutePath()).setOverwrite(true))
+                .setBloomFilterColumns(asList(new BloomFilterColumn().setColumn("name").setExpectedDistinctValues(1000)));
+        write(configuration, createRecords(1000));
+
+        final ParquetMetadata footer = ParquetUtils.readFooter(file.getAbsolutePath());
+        for (ColumnChunkMetaData chunk : footer.getBlocks().get(0).getColumns()) {
+            if (chunk.getPath().toDotString().equals("name")) {
+                assertTrue("Bloom filter écrit pour name", chunk.getBloomFilterOffset() >= 0);
+            } else {
+                assertEquals(-1L, chunk.getBloomFilterOffset());
+            }
+        }
+
+        // Valeur absente mais comprise entre min et max : seul le bloom filter écarte le row group
+        final FilterPredicate absent = FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("Person500x"));
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file.getAbsolutePath()),
+                ParquetReadOptions.builder()
+                        .withRecordFilter(FilterCompat.get(absent))
+                        .useStatsFilter(false)
+                        .useDictionaryFilter(false)
+                        .useBloomFilter(true)
+                        .build())) {
+            assertTrue(reader.getRowGroups().isEmpty());
+        }
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(file.getAbsolutePath());
+        dataset.setFilters(asList(new ParquetFilterCondition().setColumn("name")
+                .setOperator(ParquetFilterCondition.Operator.EQUALS).setValue("Person500x")));
+        final ParquetInputMapperConfiguration input = new ParquetInputMapperConfiguration();
+        input.setDataset(dataset);
+        assertTrue(COMPONENT_FACTORY.collectAsList(Record.class,
+                COMPONENT_FACTORY.createMapper(ParquetInputMapper.class, input)).isEmpty());
+
+        dataset.getFilters().get(0).setValue("Person500");
+        assertEquals(1, COMPONENT_FACTORY.collectAsList(Record.class,
+                COMPONENT_FACTORY.createMapper(ParquetInputMapper.class, input)).size());
+        file.delete();
+    }
+
+    @Test
+    public void testRollingOutputFiles() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-rolling").toFile();
+
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true))
+                .setMaxRowsPerFile(1000);
+        write(configuration, createRecords(2500));
+
+        assertEquals(1000, read(new File(directory, "part-00000.parquet")).size());
+        assertEquals(1000, read(new File(directory, "part-00001.parquet")).size());
+        assertEquals(500, read(new File(directory, "part-00002.parquet")).size());
+        assertEquals(2500, read(directory).size());
+
+        final String manifest = new String(Files.readAllBytes(new File(directory, "_manifest.json").toPath()),
+                java.nio.charset.StandardCharsets.UTF_8);
+        assertTrue(manifest.contains("\"complete\":true"));
+        assertTrue(manifest.contains("\"path\":\"part-00002.parquet\",\"rows\":500"));
+
+        // Une nouvelle exécution remplace les fichiers précédents, sans toucher aux autres répertoires
+        final File unrelated = new File(directory, "backup=old");
+        assertTrue(unrelated.mkdir());
+        write(configuration, createRecords(10));
+        assertEquals(10, read(new File(directory, "part-00000.parquet")).size());
+        assertTrue("Écriture non partitionnée : aucun répertoire supprimé", unrelated.isDirectory());
+    }
+
+    @Test
+    public void testManifestIncompleteAfterFailedWrite() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-failed").toFile();
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true))
+                .setMaxRowsPerFile(2);
+
+        final List<Record> records = new ArrayList<>(createRecords(3));
+        // Hors du decimal(38, 18) écrit : refusé au quatrième record
+        final Record last = records.get(2);
+        records.add(COMPONENT_FACTORY.findService(RecordBuilderFactory.class).newRecordBuilder(last.getSchema(), last)
+                .withDecimal("amount", new BigDecimal("0.0000000000000000001")).build());
+        try {
+            write(configuration, records);
+            fail("Valeur DECIMAL hors du type de la colonne acceptée");
+        } catch (RuntimeException expected) {
+            // attendu
+        }
+
+        final String manifest = new String(Files.readAllBytes(new File(directory, "_manifest.json").toPath()),
+                java.nio.charset.StandardCharsets.UTF_8);
+        assertTrue(manifest.startsWith("{\"complete\":false"));
+        assertTrue(manifest.contains("\"path\":\"part-00000.parquet\",\"rows\":2"));
+    }
+
+    @Test
+    public void testRowGroupsPerFileWithCompression() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-row-groups").toFile();
+
+        // Row groups compressés bien plus petits que rowGroupSize : la limite porte sur leur nombre
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true)
+                        .setCompression(ParquetOutputDataset.Compression.GZIP))
+                .setRowGroupSize(16 * 1024)
+                .setRowGroupsPerFile(2);
+        write(configuration, createRecords(20000));
+
+        final File[] parts = directory.listFiles((dir, name) -> name.startsWith("part-"));
+        java.util.Arrays.sort(parts);
+        assertTrue("Plusieurs fichiers attendus", parts.length > 2);
+        for (int i = 0; i < parts.length; i++) {
+            final int rowGroups = ParquetUtils.readFooter(parts[i].getAbsolutePath()).getBlocks().size();
+            if (i < parts.length - 1) {
+                assertEquals(parts[i].getName(), 2, rowGroups);
+            } else {
+                assertTrue(rowGroups >= 1 && rowGroups <= 2);
+            }
+        }
+        assertEquals(20000, read(directory).size());
+    }
+
+    @Test
+    public void testPartitionedOutput() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-partitioned").toFile();
+
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true))
+                .setPartitionColumns(asList("name"))
+                .setMaxOpenWriters(1);
+        // Partitions entrelacées : chaque partition est finalisée puis reprise dans un nouveau fichier
+        final List<Record> records = new ArrayList<>(createRecords(4));
+        records.addAll(createRecords(4));
+        write(configuration, records);
+
+        for (String partition : asList("name=__HIVE_DEFAULT_PARTITION__", "name=Person1", "name=Person2", "name=Person3")) {
+            for (String part : asList("part-00000.parquet", "part-00001.parquet")) {
+                final List<Record> rows = read(new File(new File(directory, partition), part));
+                assertEquals(1, rows.size());
+                // La colonne de partition n'est portée que par le répertoire
+                assertNull(rows.get(0).getSchema().getEntry("name"));
+            }
+        }
+
+        final ParquetInputDataset dataset = new ParquetInputDataset().setPath(directory.getAbsolutePath()).setRecursive(true);
+        final ParquetInputMapperConfiguration input = new ParquetInputMapperConfiguration();
+        input.setDataset(dataset);
+        assertEquals(8, COMPONENT_FACTORY.collectAsList(Record.class,
+                COMPONENT_FACTORY.createMapper(ParquetInputMapper.class, input)).size());
+
+        final String manifest = new String(Files.readAllBytes(new File(directory, "_manifest.json").toPath()),
+                java.nio.charset.StandardCharsets.UTF_8);
+        assertTrue(manifest.contains("\"path\":\"name=Person3/part-00001.parquet\",\"rows\":1"));
+
+        // Une nouvelle exécution remplace les partitions précédentes, et elles seules
+        final File unrelated = new File(directory, "backup=old");
+        assertTrue(unrelated.mkdir());
+        write(configuration, createRecords(2));
+        assertFalse(new File(directory, "name=Person3").exists());
+        assertTrue(unrelated.isDirectory());
+    }
+
+    @Test
+    public void testPartitionValuesFormattedByType() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-partition-types").toFile();
+
+        final List<Record> records = new ArrayList<>(createRecords(2));
+        final Record last = records.get(1);
+        records.add(COMPONENT_FACTORY.findService(RecordBuilderFactory.class).newRecordBuilder(last.getSchema(), last)
+                .withDecimal("amount", new BigDecimal("1E+3")).build());
+        write(new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true))
+                .setPartitionColumns(asList("updated", "amount")), records);
+
+        // DATETIME en ISO-8601 (et non en epoch millis), DECIMAL sans notation scientifique
+        for (String partition : asList("updated=2024-01-01T00%3A00%3A00Z/amount=" + PartitionedWriter.DEFAULT_PARTITION,
+                "updated=2024-01-01T00%3A01%3A00Z/amount=12.5", "updated=2024-01-01T00%3A01%3A00Z/amount=1000")) {
+            assertEquals(1, read(new File(new File(directory, partition), "part-00000.parquet")).size());
+        }
+    }
+
+    @Test
+    public void testMissingPartitionColumnFails() throws IOException {
+        final File directory = Files.createTempDirectory("test-output-missing-partition").toFile();
+
+        final ParquetOutputConfiguration configuration = new ParquetOutputConfiguration()
+                .setDataset(new ParquetOutputDataset().setPath(directory.getAbsolutePath()).setOverwrite(true))
+                .setPartitionColumns(asList("country"));
+        try {
+            write(configuration, createRecords(3));
+            fail("Une colonne de partition absente du schéma doit être signalée");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && (cause.getMessage() == null || !cause.getMessage().contains("country"))) {
+                cause = cause.getCause();
+            }
+            assertTrue("Colonne manquante nommée dans l'erreur", cause != null);
+        }
+        assertFalse(new File(directory, "country=" + PartitionedWriter.DEFAULT_PARTITION).exists());
+    }
+
+    private List<Record> createRecords(final int count) {
+        final RecordBuilderFactory factory = COMPONENT_FACTORY.findService(RecordBuilderFactory.class);
+        final Schema.Entry id = factory.newEntryBuilder().withName("id").withType(Schema.Type.INT).withNullable(true).build();
+        final Schema.Entry name = factory.newEntryBuilder().withName("name").withType(Schema.Type.STRING).withNullable(true).build();
+        final Schema.Entry amount = factory.newEntryBuilder().withName("amount").withType(Schema.Type.DECIMAL).withNullable(true).build();
+        final Schema.Entry updated = factory.newEntryBuilder().withName("updated").withType(Schema.Type.DATETIME).withNullable(true).build();
+        final Schema schema = factory.newSchemaBuilder(Schema.Type.RECORD)
+                .withEntry(id).withEntry(name).withEntry(amount).withEntry(updated).build();
+
+        final List<Record> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Record.Builder builder = factory.newRecordBuilder(schema)
+                    .withInt(id, i)
+                    .withDateTime(updated, ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC")).plusMinutes(i));
+            if (i > 0) {
+                builder.withString(name, "Person" + i);
+                builder.withDecimal(amount, new BigDecimal("12.5").multiply(BigDecimal.valueOf(i)));
+            }
+            records.add(builder.build());
+        }
+        return records;
+    }
+
+    /**
+     * Record dont l'entrée INT "id" stocke du texte : les accesseurs typés échouent sur cette valeur.
+     */
+    private static Record textRecord(final Schema schema, final int id, final String name) {
+        final java.util.Map<String, Object> values = new java.util.HashMap<>();
+        values.put("id", String.valueOf(id));
+        values.put("name", name);
+        return (Record) java.lang.reflect.Proxy.newProxyInstance(Record.class.getClassLoader(), new Class<?>[] { Record.class },
+                (proxy, method, args) -> {
+                    if ("getSchema".equals(method.getName())) {
+                        return schema;
+                    }
+                    if ("get".equals(method.getName()) && args.length == 2) {
+                        final Object value = values.get(args[1]);
+                        return value == null ? null : ((Class<?>) args[0]).cast(value);
+                    }
+                    if (method.isDefault()) {
+                        return java.lang.reflect.InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Schema.Entry entry(final RecordBuilderFactory factory, final String name, final Schema.Type type) {
+        return factory.newEntryBuilder().withName(name).withType(type).withNullable(true).build();
+    }
+
+    private void write(final ParquetOutputConfiguration configuration, final List<Record> records) {
+        final Processor processor = COMPONENT_FACTORY.createProcessor(ParquetOutputProcessor.class, configuration);
+        COMPONENT_FACTORY.collect(processor, new JoinInputFactory().withInput("__default__", records));
+    }
+
+    private List<Record> read(final File file) {
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(file.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+        // collectAsList s'arrête sinon à 1000 enregistrements
+        return COMPONENT_FACTORY.collectAsList(Record.class,
+                COMPONENT_FACTORY.createMapper(ParquetInputMapper.class, configuration), Integer.MAX_VALUE);
+    }
+}
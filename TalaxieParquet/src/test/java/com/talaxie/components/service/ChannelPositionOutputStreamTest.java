@@ -0,0 +1,182 @@
+package com.talaxie.components.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChannelPositionOutputStreamTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("test-channel-output", ".bin").toFile();
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testSyncsAtRowGroupBoundariesOnly() throws IOException {
+        for (boolean writeBehind : new boolean[] { false, true }) {
+            final byte[] content = new byte[10_000];
+            new Random(42).nextBytes(content);
+            final CountingChannel channel = new CountingChannel(FileChannel.open(file.toPath(),
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+
+            try (ChannelPositionOutputStream stream = new ChannelPositionOutputStream(channel, "test", 1024,
+                    writeBehind, FsyncPolicy.PER_ROW_GROUP)) {
+                // Beaucoup plus d'octets que le tampon : aucun fsync tant qu'aucun row group n'est signalé
+                stream.write(content, 0, 6000);
+                assertEquals(0, channel.forces);
+
+                stream.rowGroupWritten();
+                assertEquals(1, channel.forces);
+                assertEquals(6000, channel.written);
+
+                stream.write(content, 6000, 4000);
+                assertEquals(1, channel.forces);
+            }
+            // Fermeture : un dernier fsync
+            assertEquals(2, channel.forces);
+            assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        }
+    }
+
+    @Test
+    public void testNoSyncWithoutPolicy() throws IOException {
+        final CountingChannel channel = new CountingChannel(FileChannel.open(file.toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+        try (ChannelPositionOutputStream stream = new ChannelPositionOutputStream(channel, "test", 1024,
+                false, FsyncPolicy.ON_CLOSE)) {
+            stream.write(new byte[5000]);
+            stream.rowGroupWritten();
+            assertEquals(0, channel.forces);
+        }
+        assertEquals(1, channel.forces);
+    }
+
+    /**
+     * FileChannel comptant les fsync et les octets écrits.
+     */
+    private static final class CountingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private int forces;
+        private long written;
+
+        CountingChannel(final FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            final int count = delegate.write(src);
+            written += count;
+            return count;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException {
+            final long count = delegate.write(srcs, offset, length);
+            written += count;
+            return count;
+        }
+
+        @Override
+        public void force(final boolean metaData) throws IOException {
+            forces++;
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(final ByteBuffer[] dsts, final int offset, final int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(final long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(final long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(final long position, final long count, final WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(final ReadableByteChannel src, final long position, final long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(final ByteBuffer dst, final long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(final ByteBuffer src, final long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(final MapMode mode, final long position, final long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(final long position, final long size, final boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(final long position, final long size, final boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.talaxie.components.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedSeekableInputStreamTest {
+
+    // Petits segments : les lectures chevauchent plusieurs projections
+    private static final long SEGMENT_SIZE = 1024;
+    private static final int LENGTH = 10_000;
+
+    private File file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("test-mmap", ".bin").toFile();
+        file.deleteOnExit();
+        content = new byte[LENGTH];
+        new Random(42).nextBytes(content);
+        Files.write(file.toPath(), content);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testReadsAcrossSegmentBoundaries() throws IOException {
+        try (SeekableInputStream mapped = new LocalInputFile(file.getPath(), ReadMode.MEMORY_MAPPED, SEGMENT_SIZE).newStream();
+             SeekableInputStream channel = new LocalInputFile(file.getPath(), ReadMode.CHANNEL).newStream()) {
+
+            // { position, longueur } : dans un segment, à cheval sur une ou plusieurs limites, fin de fichier
+            final int[][] ranges = { { 0, 100 }, { 1020, 8 }, { 1024, 1024 }, { 1000, 3000 }, { 0, LENGTH }, { 9990, 10 } };
+            for (int[] range : ranges) {
+                final byte[] expected = new byte[range[1]];
+                System.arraycopy(content, range[0], expected, 0, range[1]);
+
+                for (SeekableInputStream stream : new SeekableInputStream[] { mapped, channel }) {
+                    final byte[] bytes = new byte[range[1]];
+                    stream.seek(range[0]);
+                    stream.readFully(bytes);
+                    assertArrayEquals(expected, bytes);
+                    assertEquals(range[0] + range[1], stream.getPos());
+
+                    final ByteBuffer direct = ByteBuffer.allocateDirect(range[1]);
+                    stream.seek(range[0]);
+                    stream.readFully(direct);
+                    direct.flip();
+                    final byte[] copy = new byte[range[1]];
+                    direct.get(copy);
+                    assertArrayEquals(expected, copy);
+                }
+            }
+
+            // Octet par octet autour d'une limite de segment
+            mapped.seek(1022);
+            for (int i = 1022; i < 1027; i++) {
+                assertEquals(content[i] & 0xFF, mapped.read());
+            }
+            assertEquals(1027, mapped.getPos());
+        }
+    }
+
+    @Test
+    public void testEndOfFile() throws IOException {
+        try (SeekableInputStream mapped = new LocalInputFile(file.getPath(), ReadMode.MEMORY_MAPPED, SEGMENT_SIZE).newStream()) {
+            // Lecture partielle jusqu'à la fin du fichier
+            mapped.seek(LENGTH - 5);
+            final byte[] bytes = new byte[10];
+            assertEquals(5, mapped.read(bytes, 0, bytes.length));
+            assertEquals(content[LENGTH - 1], bytes[4]);
+
+            assertEquals(-1, mapped.read());
+            assertEquals(-1, mapped.read(bytes, 0, bytes.length));
+
+            mapped.seek(LENGTH - 5);
+            try {
+                mapped.readFully(new byte[10]);
+                fail("Lecture au-delà de la fin du fichier");
+            } catch (EOFException expected) {
+                // attendu
+            }
+        }
+    }
+}
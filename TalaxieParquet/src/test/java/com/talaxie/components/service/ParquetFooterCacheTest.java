@@ -0,0 +1,127 @@
+package com.talaxie.components.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.Test;
+
+public class ParquetFooterCacheTest {
+
+    // Deux colonnes : un row group = deux column chunks
+    private static final Schema SCHEMA = new Schema.Parser().parse("{"
+            + "\"type\":\"record\","
+            + "\"name\":\"TestRecord\","
+            + "\"fields\":["
+            + "  {\"name\":\"id\",\"type\":\"int\"},"
+            + "  {\"name\":\"name\",\"type\":\"string\"}"
+            + "]}");
+
+    @Test
+    public void testInvalidatedWhenFileChanges() throws IOException {
+        final ParquetFooterCache cache = new ParquetFooterCache(10, 1_000L);
+        final File file = createFile(5);
+
+        final ParquetMetadata footer = cache.get(file.getPath());
+        assertSame("Footer lu une seule fois", footer, cache.get(file.getPath()));
+
+        // Même taille, date de modification différente
+        assertTrue(file.setLastModified(file.lastModified() - 10_000L));
+        final ParquetMetadata touched = cache.get(file.getPath());
+        assertNotSame(footer, touched);
+        assertSame(touched, cache.get(file.getPath()));
+
+        // Contenu (et taille) différents
+        writeFile(file, 50);
+        final ParquetMetadata rewritten = cache.get(file.getPath());
+        assertNotSame(touched, rewritten);
+        assertEquals(50L, rewritten.getBlocks().get(0).getRowCount());
+
+        cache.invalidate(file.getPath());
+        assertNotSame(rewritten, cache.get(file.getPath()));
+        file.delete();
+    }
+
+    @Test
+    public void testLruEvictionByFileCount() throws IOException {
+        final ParquetFooterCache cache = new ParquetFooterCache(2, 1_000L);
+        final File a = createFile(1);
+        final File b = createFile(2);
+        final File c = createFile(3);
+
+        final ParquetMetadata footerA = cache.get(a.getPath());
+        final ParquetMetadata footerB = cache.get(b.getPath());
+        // A utilisé plus récemment que B : B sort à l'arrivée de C
+        assertSame(footerA, cache.get(a.getPath()));
+        cache.get(c.getPath());
+
+        assertSame(footerA, cache.get(a.getPath()));
+        assertNotSame(footerB, cache.get(b.getPath()));
+        a.delete();
+        b.delete();
+        c.delete();
+    }
+
+    @Test
+    public void testEvictionByColumnChunks() throws IOException {
+        // 2 column chunks par fichier, 5 au plus dans le cache : 2 fichiers
+        final ParquetFooterCache cache = new ParquetFooterCache(10, 5L);
+        final File a = createFile(1);
+        final File b = createFile(2);
+        final File c = createFile(3);
+
+        final ParquetMetadata footerA = cache.get(a.getPath());
+        final ParquetMetadata footerB = cache.get(b.getPath());
+        cache.get(c.getPath());
+
+        assertSame(footerB, cache.get(b.getPath()));
+        assertNotSame(footerA, cache.get(a.getPath()));
+
+        // Un footer plus gros que la borne reste en cache tant qu'il est seul
+        final ParquetFooterCache tiny = new ParquetFooterCache(10, 1L);
+        final ParquetMetadata single = tiny.get(a.getPath());
+        assertSame(single, tiny.get(a.getPath()));
+        tiny.get(b.getPath());
+        assertNotSame(single, tiny.get(a.getPath()));
+        a.delete();
+        b.delete();
+        c.delete();
+    }
+
+    private static File createFile(final int rows) throws IOException {
+        final File file = Files.createTempFile("test-footer", ".parquet").toFile();
+        file.deleteOnExit();
+        writeFile(file, rows);
+        return file;
+    }
+
+    private static void writeFile(final File file, final int rows) throws IOException {
+        try (ParquetWriter<GenericRecord> writer = AvroParquetWriter
+                .<GenericRecord>builder(new Path(file.getAbsolutePath()))
+                .withSchema(SCHEMA)
+                .withConf(new Configuration())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build()) {
+            for (int i = 1; i <= rows; i++) {
+                final GenericRecord record = new GenericData.Record(SCHEMA);
+                record.put("id", i);
+                record.put("name", "Person" + i);
+                writer.write(record);
+            }
+        }
+    }
+}
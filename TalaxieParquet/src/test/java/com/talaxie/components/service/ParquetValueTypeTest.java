@@ -0,0 +1,59 @@
+package com.talaxie.components.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.apache.parquet.schema.Types;
+import org.junit.Test;
+import org.talend.sdk.component.api.record.Schema;
+
+public class ParquetValueTypeTest {
+
+    @Test
+    public void testClassifiesLogicalTypes() {
+        assertEquals(ParquetValueType.STRING, ParquetValueType.of(column(PrimitiveTypeName.BINARY, null)));
+        assertEquals(ParquetValueType.STRING,
+                ParquetValueType.of(column(PrimitiveTypeName.BINARY, LogicalTypeAnnotation.stringType())));
+        assertEquals(ParquetValueType.BYTES,
+                ParquetValueType.of(column(PrimitiveTypeName.BINARY, LogicalTypeAnnotation.bsonType())));
+        assertEquals(ParquetValueType.DECIMAL_BINARY,
+                ParquetValueType.of(column(PrimitiveTypeName.BINARY, LogicalTypeAnnotation.decimalType(3, 10))));
+        assertEquals(ParquetValueType.DECIMAL_INT64,
+                ParquetValueType.of(column(PrimitiveTypeName.INT64, LogicalTypeAnnotation.decimalType(2, 18))));
+        assertEquals(ParquetValueType.TIMESTAMP_MICROS, ParquetValueType.of(column(PrimitiveTypeName.INT64,
+                LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS))));
+        assertEquals(ParquetValueType.TIME_MILLIS, ParquetValueType.of(column(PrimitiveTypeName.INT32,
+                LogicalTypeAnnotation.timeType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))));
+        assertEquals(ParquetValueType.DATE,
+                ParquetValueType.of(column(PrimitiveTypeName.INT32, LogicalTypeAnnotation.dateType())));
+        assertEquals(ParquetValueType.INT96_TIMESTAMP, ParquetValueType.of(column(PrimitiveTypeName.INT96, null)));
+
+        assertEquals(3, ParquetValueType.scale(column(PrimitiveTypeName.BINARY, LogicalTypeAnnotation.decimalType(3, 10))));
+        assertEquals(Schema.Type.DATETIME, ParquetValueType.TIME_NANOS.getTalendType());
+        assertEquals(Schema.Type.STRING, ParquetValueType.UUID.getTalendType());
+    }
+
+    @Test
+    public void testUnsupportedAnnotations() {
+        assertTrue(ParquetValueType.isSupported(column(PrimitiveTypeName.INT32, null)));
+        assertTrue(ParquetValueType.isSupported(column(PrimitiveTypeName.INT32, LogicalTypeAnnotation.intType(16, false))));
+        assertTrue(ParquetValueType.isSupported(column(PrimitiveTypeName.BINARY, LogicalTypeAnnotation.jsonType())));
+
+        // Valeurs au-delà du maximum signé : lues comme des entiers négatifs
+        assertFalse(ParquetValueType.isSupported(column(PrimitiveTypeName.INT32, LogicalTypeAnnotation.intType(32, false))));
+        assertFalse(ParquetValueType.isSupported(column(PrimitiveTypeName.INT64, LogicalTypeAnnotation.intType(64, false))));
+        final PrimitiveType interval = Types.primitive(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY, Repetition.OPTIONAL)
+                .length(12).as(LogicalTypeAnnotation.IntervalLogicalTypeAnnotation.getInstance()).named("interval");
+        assertFalse(ParquetValueType.isSupported(interval));
+        assertEquals(ParquetValueType.BYTES, ParquetValueType.of(interval));
+    }
+
+    private static PrimitiveType column(final PrimitiveTypeName type, final LogicalTypeAnnotation annotation) {
+        return Types.primitive(type, Repetition.OPTIONAL).as(annotation).named("value");
+    }
+}
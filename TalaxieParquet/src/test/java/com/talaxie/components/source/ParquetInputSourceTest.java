@@ -1,29 +1,45 @@
 package com.talaxie.components.source;
 
+import com.talaxie.components.dataset.ParquetFilterCondition;
 import com.talaxie.components.dataset.ParquetInputDataset;
 import com.talaxie.components.datastore.ParquetDatastore;
 import com.talaxie.components.service.Compression;
+import com.talaxie.components.service.LocalInputFile;
+import com.talaxie.components.service.ParquetInputSchemaService;
+import com.talaxie.components.service.ParquetUtils;
+import com.talaxie.components.service.ReadMode;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.ParquetReadOptions;
 import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.talend.sdk.component.api.record.Record;
 import org.talend.sdk.component.junit.SimpleComponentRule;
+import org.talend.sdk.component.runtime.input.Mapper;
 import org.talend.sdk.component.runtime.manager.chain.Job;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
 
 import static org.junit.Assert.*;
 import static org.talend.sdk.component.junit.SimpleFactory.configurationByExample;
@@ -42,9 +58,12 @@ public class ParquetInputSourceTest {
     private void createTestParquetFile(File file, Schema schema, boolean overwrite,
                                        Compression compression,
                                        int recordCount) throws IOException {
-        Path path = new Path(file.getAbsolutePath());
-        Configuration hadoopConf = new Configuration();
+        createTestParquetFile(file, schema, overwrite, compression, recordCount, ParquetWriter.DEFAULT_BLOCK_SIZE);
+    }
 
+    private void createTestParquetFile(File file, Schema schema, boolean overwrite,
+                                       Compression compression,
+                                       int recordCount, int rowGroupSize) throws IOException {
         // Convertir la compression du dataset en CompressionCodecName
         CompressionCodecName codecName;
         switch (compression) {
@@ -65,41 +84,89 @@ public class ParquetInputSourceTest {
                 ? ParquetFileWriter.Mode.OVERWRITE
                 : ParquetFileWriter.Mode.CREATE;
 
-        try (ParquetWriter<GenericRecord> writer = AvroParquetWriter
-                .<GenericRecord>builder(path)
-                .withSchema(schema)
-                .withConf(hadoopConf)
+        writeTestFile(file, schema, recordCount, builder -> builder
                 .withCompressionCodec(codecName)
                 .withWriteMode(writeMode)
-                .build()) {
+                .withRowGroupSize(rowGroupSize), (record, i) -> {
+            // Remplir seulement les champs qui existent dans le schéma
+            for (Schema.Field field : schema.getFields()) {
+                switch (field.name()) {
+                    case "id":
+                        record.put("id", i);
+                        break;
+                    case "name":
+                        record.put("name", "Person" + i);
+                        break;
+                    case "age":
+                        record.put("age", 20 + i);
+                        break;
+                    case "salary":
+                        record.put("salary", 30000.0 + (i * 1000));
+                        break;
+                }
+            }
+        });
+    }
 
-            // Écrire les enregistrements de test
+    /**
+     * Écrit {@code recordCount} enregistrements numérotés à partir de 1, remplis par {@code filler}.
+     * Le fichier existant est remplacé ; {@code options} complète la configuration du writer.
+     */
+    private static void writeTestFile(File file, Schema schema, int recordCount,
+                                      UnaryOperator<AvroParquetWriter.Builder<GenericRecord>> options,
+                                      ObjIntConsumer<GenericRecord> filler) throws IOException {
+        try (ParquetWriter<GenericRecord> writer = options.apply(AvroParquetWriter
+                        .<GenericRecord>builder(new Path(file.getAbsolutePath()))
+                        .withSchema(schema)
+                        .withConf(new Configuration())
+                        .withWriteMode(ParquetFileWriter.Mode.OVERWRITE))
+                .build()) {
             for (int i = 1; i <= recordCount; i++) {
                 GenericRecord record = new GenericData.Record(schema);
-
-                // Remplir seulement les champs qui existent dans le schéma
-                for (Schema.Field field : schema.getFields()) {
-                    switch (field.name()) {
-                        case "id":
-                            record.put("id", i);
-                            break;
-                        case "name":
-                            record.put("name", "Person" + i);
-                            break;
-                        case "age":
-                            record.put("age", 20 + i);
-                            break;
-                        case "salary":
-                            record.put("salary", 30000.0 + (i * 1000));
-                            break;
-                    }
-                }
-
+                filler.accept(record, i);
                 writer.write(record);
             }
         }
     }
 
+    private static void writeTestFile(File file, Schema schema, int recordCount,
+                                      ObjIntConsumer<GenericRecord> filler) throws IOException {
+        writeTestFile(file, schema, recordCount, UnaryOperator.identity(), filler);
+    }
+
+    /**
+     * Schéma Avro d'un enregistrement de test, à partir de la déclaration JSON de ses champs.
+     */
+    private static Schema recordSchema(String... fields) {
+        return new Schema.Parser().parse(
+                "{\"type\":\"record\",\"name\":\"TestRecord\",\"fields\":[" + String.join(",", fields) + "]}");
+    }
+
+    /**
+     * Champ obligatoire : type primitif ("int") ou déclaration JSON complète ("{...}").
+     */
+    private static String field(String name, String type) {
+        return "{\"name\":\"" + name + "\",\"type\":" + (type.startsWith("{") ? type : "\"" + type + "\"") + "}";
+    }
+
+    /**
+     * Champ nullable de type primitif, nul par défaut.
+     */
+    private static String nullableField(String name, String type) {
+        return "{\"name\":\"" + name + "\",\"type\":[\"null\",\"" + type + "\"],\"default\":null}";
+    }
+
+    /**
+     * Toutes les lignes lues par le mapper : collectAsList s'arrête sinon à 1000 enregistrements.
+     */
+    private List<Record> readAll(Class<?> mapperType, Object configuration) {
+        return readAll(components.createMapper(mapperType, configuration));
+    }
+
+    private List<Record> readAll(Mapper mapper) {
+        return components.collectAsList(Record.class, mapper, Integer.MAX_VALUE);
+    }
+
 
     @Before
     public void setUp() throws IOException {
@@ -108,17 +175,11 @@ public class ParquetInputSourceTest {
         testParquetFile.deleteOnExit();
 
         // Créer un schéma Avro simple
-        String schemaString = "{"
-                + "\"type\":\"record\","
-                + "\"name\":\"TestRecord\","
-                + "\"fields\":["
-                + "  {\"name\":\"id\",\"type\":\"int\"},"
-                + "  {\"name\":\"name\",\"type\":\"string\"},"
-                + "  {\"name\":\"age\",\"type\":\"int\"},"
-                + "  {\"name\":\"salary\",\"type\":\"double\"}"
-                + "]}";
-
-        Schema avroSchema = new Schema.Parser().parse(schemaString);
+        Schema avroSchema = recordSchema(
+                field("id", "int"),
+                field("name", "string"),
+                field("age", "int"),
+                field("salary", "double"));
 
         // Utiliser la méthode utilitaire avec overwrite=true
         createTestParquetFile(testParquetFile, avroSchema, true,
@@ -189,8 +250,7 @@ public class ParquetInputSourceTest {
         File emptyFile = Files.createTempFile("empty-parquet", ".parquet").toFile();
         emptyFile.deleteOnExit();
 
-        String schemaString = "{\"type\":\"record\",\"name\":\"EmptyRecord\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"}]}";
-        Schema avroSchema = new Schema.Parser().parse(schemaString);
+        Schema avroSchema = recordSchema(field("id", "int"));
 
         // Utiliser la méthode utilitaire avec overwrite=true et 0 enregistrements
         createTestParquetFile(emptyFile, avroSchema, true,
@@ -255,14 +315,7 @@ public class ParquetInputSourceTest {
         File gzipFile = Files.createTempFile("test-gzip", ".parquet").toFile();
         gzipFile.deleteOnExit();
 
-        String schemaString = "{"
-                + "\"type\":\"record\","
-                + "\"name\":\"TestRecord\","
-                + "\"fields\":["
-                + "  {\"name\":\"id\",\"type\":\"int\"},"
-                + "  {\"name\":\"name\",\"type\":\"string\"}"
-                + "]}";
-        Schema schema = new Schema.Parser().parse(schemaString);
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"));
 
         createTestParquetFile(gzipFile, schema, true,
                 Compression.GZIP, 3);
@@ -294,4 +347,817 @@ public class ParquetInputSourceTest {
 
         gzipFile.delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSplitByRowGroups() throws IOException {
+        // Petits row groups pour obtenir plusieurs partitions
+        File bigFile = Files.createTempFile("test-split", ".parquet").toFile();
+        bigFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"));
+
+        createTestParquetFile(bigFile, schema, true, Compression.UNCOMPRESSED, 2000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(bigFile.getAbsolutePath());
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final Mapper mapper = components.createMapper(ParquetInputMapper.class, configuration);
+        final long size = mapper.assess();
+        assertTrue("La taille estimée doit venir du footer", size > 1L);
+
+        final List<Mapper> splits = mapper.split(size / 4);
+        assertTrue("Le fichier doit être découpé en plusieurs partitions", splits.size() > 1);
+
+        int total = 0;
+        for (Mapper split : splits) {
+            total += readAll(split).size();
+        }
+        assertEquals("Chaque ligne doit être lue une seule fois", 2000, total);
+
+        bigFile.delete();
+    }
+
+    @Test
+    public void testReadDirectoryAndGlob() throws IOException {
+        File dir = Files.createTempDirectory("test-parquet-dir").toFile();
+        dir.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"));
+
+        for (int i = 0; i < 3; i++) {
+            File part = new File(dir, "part-0000" + i + ".parquet");
+            part.deleteOnExit();
+            createTestParquetFile(part, schema, true, Compression.SNAPPY, 4);
+        }
+        // Fichier technique ignoré
+        File marker = new File(dir, "_SUCCESS");
+        marker.createNewFile();
+        marker.deleteOnExit();
+
+        // Répertoire relatif au basePath du datastore
+        final ParquetDatastore datastore = new ParquetDatastore();
+        datastore.setBasePath(dir.getParent());
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setDatastore(datastore);
+        dataset.setPath(dir.getName());
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final Mapper mapper = components.createMapper(ParquetInputMapper.class, configuration);
+        assertEquals("Un fichier par partition", 3, mapper.split(1L).size());
+        assertEquals(12, readAll(mapper).size());
+
+        // Motif glob
+        dataset.setPath(dir.getAbsolutePath() + "/part-0000[01].parquet");
+        final Mapper globMapper = components.createMapper(ParquetInputMapper.class, configuration);
+        assertEquals(8, readAll(globMapper).size());
+    }
+
+    @Test
+    public void testReadSelectedColumns() {
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(testParquetFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("salary", "name"));
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final Mapper mapper = components.createMapper(ParquetInputMapper.class, configuration);
+        final List<Record> records = readAll(mapper);
+
+        assertEquals(5, records.size());
+        final Record first = records.get(0);
+        assertEquals("Seules les colonnes projetées sont lues", 2, first.getSchema().getEntries().size());
+        assertEquals("Person1", first.getString("name"));
+        assertEquals(31000.0, first.getDouble("salary"), 0.01);
+    }
+
+    @Test
+    public void testReadWithFilters() {
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(testParquetFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("name"));
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_OR_EQUAL).setValue("2"),
+                new ParquetFilterCondition().setColumn("name")
+                        .setOperator(ParquetFilterCondition.Operator.IN).setValue("Person1,Person3,Person5")));
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final Mapper mapper = components.createMapper(ParquetInputMapper.class, configuration);
+        final List<Record> records = readAll(mapper);
+
+        assertEquals(2, records.size());
+        assertEquals("Person3", records.get(0).getString("name"));
+        assertEquals("Person5", records.get(1).getString("name"));
+        assertEquals("La colonne de filtre n'est pas émise", 1, records.get(0).getSchema().getEntries().size());
+
+        // Aucun row group ne peut correspondre : rien n'est lu
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_THAN).setValue("100")));
+        final Mapper pruned = components.createMapper(ParquetInputMapper.class, configuration);
+        assertEquals(0, pruned.assess());
+        assertTrue(readAll(pruned).isEmpty());
+    }
+
+    @Test
+    public void testReadWithPageIndexes() throws IOException {
+        File indexedFile = Files.createTempFile("test-page-index", ".parquet").toFile();
+        indexedFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"), field("score", "double"));
+
+        // Petites pages (100 lignes pour id et score, ~1 Ko pour name : pages non alignées entre colonnes)
+        // et plusieurs row groups. Des NaN dans score (lignes 101 à 300) invalident le column index
+        // de cette colonne dans le premier row group.
+        writeTestFile(indexedFile, schema, 5000, builder -> builder
+                .withCompressionCodec(CompressionCodecName.UNCOMPRESSED)
+                .withDictionaryEncoding(false)
+                .withRowGroupSize(32 * 1024)
+                .withPageSize(1024)
+                .withPageRowCountLimit(100), (record, i) -> {
+            record.put("id", i);
+            record.put("name", "Person" + i);
+            record.put("score", i > 100 && i <= 300 ? Double.NaN : (double) i);
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(indexedFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        // Colonne triée : seules les pages qui couvrent 2345..2351 sont lues
+        final List<ParquetFilterCondition> range = Arrays.asList(
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_OR_EQUAL).setValue("2345"),
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.LESS_OR_EQUAL).setValue("2351"));
+        dataset.setFilters(range);
+        for (int batchSize : new int[] { 0, 64 }) {
+            configuration.setBatchSize(batchSize);
+            final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+            assertEquals(7, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(2345 + i, records.get(i).getInt("id"));
+                assertEquals("Person" + (2345 + i), records.get(i).getString("name"));
+                assertEquals(2345.0 + i, records.get(i).getDouble("score"), 0.0);
+            }
+        }
+        try (ParquetFileReader reader = openFiltered(indexedFile, range)) {
+            final long blockRows = reader.getRowGroups().get(0).getRowCount();
+            final long readRows = reader.readNextFilteredRowGroup().getRowCount();
+            assertTrue("Seules les plages de lignes des pages retenues sont lues", readRows >= 7 && readRows < blockRows);
+        }
+
+        // Sans column index (score du premier row group) : le row group est lu en entier
+        // et le filtre est évalué ligne à ligne
+        final List<ParquetFilterCondition> noIndex = Arrays.asList(
+                new ParquetFilterCondition().setColumn("score")
+                        .setOperator(ParquetFilterCondition.Operator.LESS_THAN).setValue("50"));
+        dataset.setFilters(noIndex);
+        for (int batchSize : new int[] { 0, 64 }) {
+            configuration.setBatchSize(batchSize);
+            final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+            assertEquals(49, records.size());
+            assertEquals(1, records.get(0).getInt("id"));
+            assertEquals(49, records.get(48).getInt("id"));
+        }
+        try (ParquetFileReader reader = openFiltered(indexedFile, noIndex)) {
+            assertEquals(reader.getRowGroups().get(0).getRowCount(), reader.readNextFilteredRowGroup().getRowCount());
+        }
+        indexedFile.delete();
+    }
+
+    @Test
+    public void testPrefetchMatchesSequentialRead() throws IOException {
+        File prefetchFile = Files.createTempFile("test-prefetch", ".parquet").toFile();
+        prefetchFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("bucket", "int"));
+
+        writeTestFile(prefetchFile, schema, 5000, builder -> builder
+                .withDictionaryEncoding(false)
+                .withRowGroupSize(16 * 1024)
+                .withPageRowCountLimit(100), (record, i) -> {
+            record.put("id", i);
+            record.put("bucket", i % 1000);
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(prefetchFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        // Filtré : les row groups de 150 et 3150 passent les statistiques mais aucune de leurs pages
+        // ne vérifie les deux conditions, ils sont écartés par le column index
+        final List<List<ParquetFilterCondition>> filters = Arrays.asList(
+                new ArrayList<>(),
+                Arrays.asList(
+                        new ParquetFilterCondition().setColumn("id")
+                                .setOperator(ParquetFilterCondition.Operator.IN).setValue("150,1700,3150"),
+                        new ParquetFilterCondition().setColumn("bucket")
+                                .setOperator(ParquetFilterCondition.Operator.GREATER_OR_EQUAL).setValue("500")));
+        final int[] expectedSizes = { 5000, 1 };
+
+        for (int f = 0; f < filters.size(); f++) {
+            dataset.setFilters(filters.get(f));
+            configuration.setPrefetchRowGroups(0);
+            final List<Integer> expected = ids(readAll(ParquetInputMapper.class, configuration));
+            assertEquals(expectedSizes[f], expected.size());
+
+            // Budget large, puis budget d'un seul row group à la fois
+            for (long budget : new long[] { 268_435_456L, 1L }) {
+                configuration.setPrefetchRowGroups(2).setPrefetchMemoryBudget(budget);
+                assertEquals(expected, ids(readAll(ParquetInputMapper.class, configuration)));
+            }
+        }
+        assertEquals(Arrays.asList(1700), ids(readAll(ParquetInputMapper.class, configuration)));
+        prefetchFile.delete();
+    }
+
+    private static List<Integer> ids(final List<Record> records) {
+        final List<Integer> ids = new ArrayList<>();
+        for (Record record : records) {
+            ids.add(record.getInt("id"));
+        }
+        return ids;
+    }
+
+    private static ParquetFileReader openFiltered(final File file, final List<ParquetFilterCondition> filters)
+            throws IOException {
+        final MessageType schema = ParquetUtils.readFooter(file.getAbsolutePath()).getFileMetaData().getSchema();
+        return ParquetFileReader.open(new LocalInputFile(file.getAbsolutePath()), ParquetReadOptions.builder()
+                .withRecordFilter(ParquetRowFilter.compile(filters, schema).toFilter())
+                .useColumnIndexFilter(true)
+                .build());
+    }
+
+    @Test
+    public void testMemoryMappedMatchesChannelRead() throws IOException {
+        File mappedFile = Files.createTempFile("test-mmap", ".parquet").toFile();
+        mappedFile.deleteOnExit();
+        Schema schema = recordSchema(
+                field("id", "int"),
+                field("name", "string"),
+                field("age", "int"),
+                field("salary", "double"));
+        createTestParquetFile(mappedFile, schema, true, Compression.SNAPPY, 2000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(mappedFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        // Lecture complète, puis lecture filtrée (pages et row groups lus à des positions arbitraires)
+        for (List<ParquetFilterCondition> filters : Arrays.<List<ParquetFilterCondition>>asList(
+                new ArrayList<>(),
+                Arrays.asList(new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_THAN).setValue("1234")))) {
+            dataset.setFilters(filters);
+            for (int batchSize : new int[] { 0, 64 }) {
+                configuration.setBatchSize(batchSize);
+
+                configuration.setReadMode(ReadMode.CHANNEL);
+                final List<Record> expected = readAll(ParquetInputMapper.class, configuration);
+                configuration.setReadMode(ReadMode.MEMORY_MAPPED);
+                final List<Record> mapped = readAll(ParquetInputMapper.class, configuration);
+
+                assertEquals(filters.isEmpty() ? 2000 : 766, expected.size());
+                assertEquals(expected.size(), mapped.size());
+                for (int i = 0; i < mapped.size(); i++) {
+                    assertEquals(expected.get(i).getInt("id"), mapped.get(i).getInt("id"));
+                    assertEquals(expected.get(i).getString("name"), mapped.get(i).getString("name"));
+                    assertEquals(expected.get(i).getInt("age"), mapped.get(i).getInt("age"));
+                    assertEquals(expected.get(i).getDouble("salary"), mapped.get(i).getDouble("salary"), 0.0);
+                }
+            }
+        }
+        mappedFile.delete();
+    }
+
+    @Test
+    public void testBatchModeMatchesRowMode() throws IOException {
+        File batchFile = Files.createTempFile("test-batch", ".parquet").toFile();
+        batchFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"), field("salary", "double"));
+        createTestParquetFile(batchFile, schema, true, Compression.SNAPPY, 1000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(batchFile.getAbsolutePath());
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+        configuration.setBatchSize(64);
+
+        final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+        assertEquals(1000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).getInt("id"));
+            assertEquals("Person" + (i + 1), records.get(i).getString("name"));
+        }
+        batchFile.delete();
+    }
+
+    @Test
+    public void testReadNullValues() throws IOException {
+        File sparseFile = Files.createTempFile("test-nulls", ".parquet").toFile();
+        sparseFile.deleteOnExit();
+
+        Schema schema = recordSchema(
+                field("id", "int"),
+                nullableField("comment", "string"),
+                nullableField("score", "long"));
+
+        writeTestFile(sparseFile, schema, 10, (record, i) -> {
+            record.put("id", i);
+            // une ligne sur trois renseignée, "score" toujours nul
+            record.put("comment", i % 3 == 0 ? "c" + i : null);
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(sparseFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        for (int batchSize : new int[] { 0, 4 }) {
+            configuration.setBatchSize(batchSize);
+            final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+            assertEquals(10, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                final Record record = records.get(i);
+                assertEquals(i + 1, record.getInt("id"));
+                assertEquals((i + 1) % 3 == 0 ? "c" + (i + 1) : null, record.getString("comment"));
+                assertFalse(record.getOptionalLong("score").isPresent());
+            }
+        }
+        sparseFile.delete();
+    }
+
+    @Test
+    public void testReadNullsBeforeValues() throws IOException {
+        Schema schema = recordSchema(
+                field("id", "int"),
+                nullableField("label", "string"),
+                nullableField("amount", "long"));
+
+        // Encodage dictionnaire puis encodage plain : les nulls ne doivent pas décaler les valeurs
+        for (boolean dictionary : new boolean[] { true, false }) {
+            File sparseFile = Files.createTempFile("test-leading-nulls", ".parquet").toFile();
+            sparseFile.deleteOnExit();
+            writeTestFile(sparseFile, schema, 12, builder -> builder
+                    .withDictionaryEncoding(dictionary), (record, i) -> {
+                record.put("id", i);
+                record.put("label", nullBeforeValue(i) ? null : "l" + i);
+                record.put("amount", nullBeforeValue(i) ? null : 100L * i);
+            });
+
+            final ParquetInputDataset dataset = new ParquetInputDataset();
+            dataset.setPath(sparseFile.getAbsolutePath());
+            final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+            configuration.setDataset(dataset);
+
+            // Lecture ligne à ligne puis par lots ; lecture complète, puis décalage tombant
+            // sur des lignes nulles et renseignées
+            for (int batchSize : new int[] { 0, 4, 5 }) {
+                configuration.setBatchSize(batchSize);
+                for (int offset : new int[] { 0, 3, 7 }) {
+                    dataset.setOffset(offset);
+                    final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+                    assertEquals(12 - offset, records.size());
+                    for (int i = 0; i < records.size(); i++) {
+                        final Record record = records.get(i);
+                        final int id = offset + i + 1;
+                        assertEquals(id, record.getInt("id"));
+                        assertEquals(nullBeforeValue(id) ? null : "l" + id, record.getString("label"));
+                        assertEquals(nullBeforeValue(id) ? null : Long.valueOf(100L * id),
+                                record.getOptionalLong("amount").isPresent() ? record.getLong("amount") : null);
+                    }
+                }
+            }
+            sparseFile.delete();
+        }
+    }
+
+    // Quatre nulls en tête de fichier, puis deux au milieu des valeurs
+    private static boolean nullBeforeValue(final int id) {
+        return id <= 4 || id == 7 || id == 8;
+    }
+
+    @Test
+    public void testReadDecimals() throws IOException {
+        File decimalFile = Files.createTempFile("test-decimal", ".parquet").toFile();
+        decimalFile.deleteOnExit();
+
+        Schema schema = recordSchema(
+                field("amount", "{\"type\":\"bytes\",\"logicalType\":\"decimal\",\"precision\":10,\"scale\":3}"),
+                field("big", "{\"type\":\"fixed\",\"name\":\"Big\",\"size\":16,"
+                        + "\"logicalType\":\"decimal\",\"precision\":38,\"scale\":4}"));
+
+        BigDecimal amount = new BigDecimal("-1234.567");
+        BigDecimal big = new BigDecimal("123456789012345678901234.5678");
+        writeTestFile(decimalFile, schema, 1, (record, i) -> {
+            record.put("amount", ByteBuffer.wrap(amount.unscaledValue().toByteArray()));
+            // fixed : complément à deux sur 16 octets
+            byte[] unscaled = big.unscaledValue().toByteArray();
+            byte[] fixed = new byte[16];
+            System.arraycopy(unscaled, 0, fixed, 16 - unscaled.length, unscaled.length);
+            record.put("big", new GenericData.Fixed(schema.getField("big").schema(), fixed));
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(decimalFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+        assertEquals(1, records.size());
+        assertEquals(amount, records.get(0).getDecimal("amount"));
+        assertEquals(big, records.get(0).getDecimal("big"));
+        decimalFile.delete();
+    }
+
+    @Test
+    public void testReadWithDecimalFilters() throws IOException {
+        File decimalFile = Files.createTempFile("test-decimal-filter", ".parquet").toFile();
+        decimalFile.deleteOnExit();
+
+        Schema schema = recordSchema(
+                field("id", "int"),
+                field("amount", "{\"type\":\"bytes\",\"logicalType\":\"decimal\",\"precision\":10,\"scale\":3}"),
+                field("big", "{\"type\":\"fixed\",\"name\":\"Big\",\"size\":16,"
+                        + "\"logicalType\":\"decimal\",\"precision\":38,\"scale\":4}"));
+        Schema bigSchema = schema.getField("big").schema();
+
+        // amount = big = 1,25 * id - 100 : valeurs négatives puis positives, sur plusieurs row groups
+        writeTestFile(decimalFile, schema, 200, builder -> builder.withRowGroupSize(1024), (record, i) -> {
+            BigDecimal value = new BigDecimal("1.25").multiply(BigDecimal.valueOf(i)).subtract(BigDecimal.valueOf(100));
+            record.put("id", i);
+            record.put("amount", ByteBuffer.wrap(value.setScale(3).unscaledValue().toByteArray()));
+            // fixed : complément à deux sur 16 octets, complété par le signe
+            byte[] unscaled = value.setScale(4).unscaledValue().toByteArray();
+            byte[] fixed = new byte[16];
+            Arrays.fill(fixed, 0, 16 - unscaled.length, value.signum() < 0 ? (byte) -1 : 0);
+            System.arraycopy(unscaled, 0, fixed, 16 - unscaled.length, unscaled.length);
+            record.put("big", new GenericData.Fixed(bigSchema, fixed));
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(decimalFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("id"));
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("amount")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_OR_EQUAL).setValue("100")));
+        List<Record> records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(41, records.size());
+        assertEquals(160, records.get(0).getInt("id"));
+
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("amount")
+                        .setOperator(ParquetFilterCondition.Operator.IN).setValue("-98.75, 150")));
+        records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).getInt("id"));
+        assertEquals(200, records.get(1).getInt("id"));
+
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("big")
+                        .setOperator(ParquetFilterCondition.Operator.EQUALS).setValue("-50.0")));
+        records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(1, records.size());
+        assertEquals(40, records.get(0).getInt("id"));
+
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("big")
+                        .setOperator(ParquetFilterCondition.Operator.LESS_THAN).setValue("-97.5")));
+        records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).getInt("id"));
+
+        // Valeur plus précise que l'échelle de la colonne : refusée
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("amount")
+                        .setOperator(ParquetFilterCondition.Operator.EQUALS).setValue("1.2345")));
+        try {
+            readAll(ParquetInputMapper.class, configuration);
+            fail("La valeur 1.2345 ne tient pas dans decimal(10,3)");
+        } catch (RuntimeException expected) {
+            // attendu
+        }
+        decimalFile.delete();
+    }
+
+    @Test
+    public void testReadNestedColumns() throws IOException {
+        File nestedFile = Files.createTempFile("test-nested", ".parquet").toFile();
+        nestedFile.deleteOnExit();
+
+        Schema schema = recordSchema(
+                field("id", "int"),
+                field("address", "{\"type\":\"record\",\"name\":\"Address\",\"fields\":["
+                        + field("city", "string") + "," + nullableField("zip", "int") + "]}"),
+                field("tags", "{\"type\":\"array\",\"items\":\"string\"}"),
+                field("scores", "{\"type\":\"map\",\"values\":\"int\"}"));
+        Schema addressSchema = schema.getField("address").schema();
+
+        writeTestFile(nestedFile, schema, 5, (record, i) -> {
+            GenericRecord address = new GenericData.Record(addressSchema);
+            address.put("city", "City" + i);
+            // codes postaux nuls au milieu : les valeurs suivantes ne doivent pas être décalées
+            address.put("zip", i == 2 || i == 3 ? null : 75000 + i);
+
+            record.put("id", i);
+            record.put("address", address);
+            // ligne 2 : liste et map vides
+            record.put("tags", i == 2 ? Collections.emptyList() : Arrays.asList("a" + i, "b" + i));
+            record.put("scores", i == 2 ? Collections.emptyMap() : Collections.singletonMap("s" + i, i));
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(nestedFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+        assertEquals(5, records.size());
+
+        final Record first = records.get(0);
+        assertEquals(1, first.getInt("id"));
+        assertEquals("City1", first.getRecord("address").getString("city"));
+        assertEquals(75001, first.getRecord("address").getInt("zip"));
+        assertEquals(Arrays.asList("a1", "b1"), new ArrayList<>(first.getArray(String.class, "tags")));
+        final Record score = first.getArray(Record.class, "scores").iterator().next();
+        assertEquals("s1", score.getString("key"));
+        assertEquals(1, score.getInt("value"));
+
+        final Record second = records.get(1);
+        assertFalse(second.getRecord("address").getOptionalInt("zip").isPresent());
+        assertTrue(second.getArray(String.class, "tags").isEmpty());
+        assertTrue(second.getArray(Record.class, "scores").isEmpty());
+
+        assertEquals(Arrays.asList("a3", "b3"),
+                new ArrayList<>(records.get(2).getArray(String.class, "tags")));
+        assertFalse(records.get(2).getRecord("address").getOptionalInt("zip").isPresent());
+        for (int i = 4; i <= 5; i++) {
+            final Record record = records.get(i - 1);
+            assertEquals("City" + i, record.getRecord("address").getString("city"));
+            assertEquals(75000 + i, record.getRecord("address").getInt("zip"));
+            assertEquals(i, record.getArray(Record.class, "scores").iterator().next().getInt("value"));
+        }
+        nestedFile.delete();
+    }
+
+    @Test
+    public void testGuessSchemaFromFooter() throws IOException {
+        File emptyFile = Files.createTempFile("empty-schema", ".parquet").toFile();
+        emptyFile.deleteOnExit();
+
+        Schema avroSchema = recordSchema(field("id", "int"), nullableField("name", "string"), field("salary", "double"));
+        // Aucun enregistrement : le schéma vient uniquement du footer
+        createTestParquetFile(emptyFile, avroSchema, true, Compression.SNAPPY, 0);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(emptyFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("salary", "name"));
+
+        final org.talend.sdk.component.api.record.Schema schema =
+                components.findService(ParquetInputSchemaService.class).guessSchema(dataset);
+
+        assertEquals(2, schema.getEntries().size());
+        assertEquals("name", schema.getEntries().get(0).getName());
+        assertEquals(org.talend.sdk.component.api.record.Schema.Type.STRING, schema.getEntries().get(0).getType());
+        assertTrue(schema.getEntries().get(0).isNullable());
+        assertEquals(org.talend.sdk.component.api.record.Schema.Type.DOUBLE, schema.getEntries().get(1).getType());
+        assertFalse(schema.getEntries().get(1).isNullable());
+        emptyFile.delete();
+    }
+
+    @Test
+    public void testReadFooterStatistics() {
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(testParquetFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("id", "salary"));
+
+        final ParquetMetadataMapperConfiguration configuration = new ParquetMetadataMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        final List<Record> records = readAll(ParquetMetadataMapper.class, configuration);
+
+        assertEquals("Une ligne par colonne sélectionnée", 2, records.size());
+        final Record id = records.get(0);
+        assertEquals("id", id.getString("column"));
+        assertEquals(5L, id.getLong("rowCount"));
+        assertEquals(0L, id.getLong("nullCount"));
+        assertEquals("1", id.getString("min"));
+        assertEquals("5", id.getString("max"));
+        assertFalse(id.getOptionalInt("rowGroup").isPresent());
+
+        configuration.setLevel(ParquetMetadataMapperConfiguration.Level.ROW_GROUP);
+        final List<Record> perRowGroup = readAll(ParquetMetadataMapper.class, configuration);
+        assertEquals(2, perRowGroup.size());
+        assertEquals(0, perRowGroup.get(0).getInt("rowGroup"));
+    }
+
+    @Test
+    public void testFooterStatisticsFollowFiltersAndSampling() throws IOException {
+        File statsFile = Files.createTempFile("test-stats-pruned", ".parquet").toFile();
+        statsFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"));
+        createTestParquetFile(statsFile, schema, true, Compression.UNCOMPRESSED, 2000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(statsFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("id"));
+        final ParquetMetadataMapperConfiguration configuration = new ParquetMetadataMapperConfiguration();
+        configuration.setDataset(dataset).setLevel(ParquetMetadataMapperConfiguration.Level.ROW_GROUP);
+
+        final List<Record> all = readAll(ParquetMetadataMapper.class, configuration);
+        assertTrue("Plusieurs row groups attendus", all.size() > 2);
+
+        // Décalage et limite portent sur des lignes : sans effet sur les statistiques
+        dataset.setOffset(1500).setLimit(3);
+        assertEquals(all.size(), readAll(ParquetMetadataMapper.class, configuration).size());
+        dataset.setOffset(0).setLimit(0);
+
+        // Row groups écartés par les statistiques : non décrits, positions d'origine conservées
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_THAN).setValue("1500")));
+        final List<Record> pruned = readAll(ParquetMetadataMapper.class, configuration);
+        assertTrue(pruned.size() > 0 && pruned.size() < all.size());
+        assertEquals(all.size() - 1, pruned.get(pruned.size() - 1).getInt("rowGroup"));
+        for (Record record : pruned) {
+            assertTrue(Integer.parseInt(record.getString("max")) > 1500);
+        }
+
+        configuration.setLevel(ParquetMetadataMapperConfiguration.Level.FILE);
+        final List<Record> file = readAll(ParquetMetadataMapper.class, configuration);
+        assertEquals(1, file.size());
+        assertTrue(file.get(0).getLong("rowCount") < 2000L);
+        assertEquals("2000", file.get(0).getString("max"));
+
+        // Un row group sur deux
+        dataset.setFilters(new ArrayList<>());
+        dataset.setSampling(ParquetInputDataset.Sampling.EVERY_KTH_ROW_GROUP).setSamplingInterval(2);
+        configuration.setLevel(ParquetMetadataMapperConfiguration.Level.ROW_GROUP);
+        final List<Record> sampled = readAll(ParquetMetadataMapper.class, configuration);
+        assertEquals((all.size() + 1) / 2, sampled.size());
+        for (int i = 0; i < sampled.size(); i++) {
+            assertEquals(2 * i, sampled.get(i).getInt("rowGroup"));
+        }
+        statsFile.delete();
+    }
+
+    @Test
+    public void testReadWithLimitOffsetAndSampling() throws IOException {
+        File bigFile = Files.createTempFile("test-bounded", ".parquet").toFile();
+        bigFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"));
+        createTestParquetFile(bigFile, schema, true, Compression.UNCOMPRESSED, 2000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(bigFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        // Décalage au milieu du fichier : les row groups précédents ne sont pas lus
+        dataset.setOffset(1500).setLimit(3);
+        List<Record> records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(3, records.size());
+        assertEquals(1501, records.get(0).getInt("id"));
+        assertEquals(1503, records.get(2).getInt("id"));
+
+        // Même décalage appliqué aux lignes retenues par un filtre
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.GREATER_THAN).setValue("1000")));
+        dataset.setOffset(10).setLimit(2);
+        records = readAll(ParquetInputMapper.class, configuration);
+        assertEquals(2, records.size());
+        assertEquals(1011, records.get(0).getInt("id"));
+
+        // Un row group sur deux
+        dataset.setFilters(new ArrayList<>());
+        dataset.setOffset(0).setLimit(0);
+        dataset.setSampling(ParquetInputDataset.Sampling.EVERY_KTH_ROW_GROUP).setSamplingInterval(2);
+        records = readAll(ParquetInputMapper.class, configuration);
+        assertTrue(records.size() > 0 && records.size() < 2000);
+        assertEquals(1, records.get(0).getInt("id"));
+        bigFile.delete();
+    }
+
+    @Test
+    public void testFilteredBatchModeMatchesRowMode() throws IOException {
+        File batchFile = Files.createTempFile("test-filtered-batch", ".parquet").toFile();
+        batchFile.deleteOnExit();
+
+        Schema schema = recordSchema(field("id", "int"), field("name", "string"), field("salary", "double"));
+        createTestParquetFile(batchFile, schema, true, Compression.SNAPPY, 1000, 4096);
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(batchFile.getAbsolutePath());
+        dataset.setColumns(Arrays.asList("name", "salary"));
+        // Colonne de filtre hors projection (id) et colonne de filtre émise (name)
+        dataset.setFilters(Arrays.asList(
+                new ParquetFilterCondition().setColumn("name")
+                        .setOperator(ParquetFilterCondition.Operator.NOT_EQUALS).setValue("Person500"),
+                new ParquetFilterCondition().setColumn("id")
+                        .setOperator(ParquetFilterCondition.Operator.IN).setValue("7,64,65,500,999")));
+        dataset.setOffset(1);
+
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        for (int batchSize : new int[] { 0, 64 }) {
+            configuration.setBatchSize(batchSize);
+            final List<Record> records = readAll(ParquetInputMapper.class, configuration);
+
+            assertEquals(3, records.size());
+            assertEquals("Person64", records.get(0).getString("name"));
+            assertEquals(94000.0, records.get(0).getDouble("salary"), 0.01);
+            assertEquals("Person65", records.get(1).getString("name"));
+            assertEquals("Person999", records.get(2).getString("name"));
+            assertEquals(2, records.get(0).getSchema().getEntries().size());
+        }
+        batchFile.delete();
+    }
+
+    @Test
+    public void testFilterOnColumnWithNulls() throws IOException {
+        File sparseFile = Files.createTempFile("test-filter-nulls", ".parquet").toFile();
+        sparseFile.deleteOnExit();
+
+        Schema schema = recordSchema(
+                field("id", "int"),
+                nullableField("label", "string"),
+                nullableField("amount", "long"));
+
+        writeTestFile(sparseFile, schema, 40, (record, i) -> {
+            record.put("id", i);
+            // nulls répartis au milieu des valeurs des deux colonnes
+            record.put("label", i % 4 == 1 || i % 4 == 2 ? null : "l" + i);
+            record.put("amount", i % 3 == 0 ? null : 10L * i);
+        });
+
+        final ParquetInputDataset dataset = new ParquetInputDataset();
+        dataset.setPath(sparseFile.getAbsolutePath());
+        final ParquetInputMapperConfiguration configuration = new ParquetInputMapperConfiguration();
+        configuration.setDataset(dataset);
+
+        for (int batchSize : new int[] { 0, 7, 8 }) {
+            configuration.setBatchSize(batchSize);
+
+            // Filtre sur une colonne nullable hors projection ; aucune ligne retenue dans le premier lot
+            dataset.setColumns(Arrays.asList("id", "label"));
+            dataset.setFilters(Arrays.asList(
+                    new ParquetFilterCondition().setColumn("amount")
+                            .setOperator(ParquetFilterCondition.Operator.GREATER_THAN).setValue("100")));
+            List<Record> records = readAll(ParquetInputMapper.class, configuration);
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 11; i <= 40; i++) {
+                if (i % 3 != 0) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, ids(records));
+            for (Record record : records) {
+                final int id = record.getInt("id");
+                assertEquals(id % 4 == 1 || id % 4 == 2 ? null : "l" + id, record.getString("label"));
+            }
+
+            // Filtre sur une colonne nullable émise
+            dataset.setColumns(new ArrayList<>());
+            dataset.setFilters(Arrays.asList(
+                    new ParquetFilterCondition().setColumn("label")
+                            .setOperator(ParquetFilterCondition.Operator.IS_NOT_NULL)));
+            records = readAll(ParquetInputMapper.class, configuration);
+            assertEquals(20, records.size());
+            for (Record record : records) {
+                final int id = record.getInt("id");
+                assertTrue(id % 4 == 0 || id % 4 == 3);
+                assertEquals("l" + id, record.getString("label"));
+                assertEquals(id % 3 == 0 ? null : Long.valueOf(10L * id),
+                        record.getOptionalLong("amount").isPresent() ? record.getLong("amount") : null);
+            }
+        }
+        sparseFile.delete();
+    }
+}
@@ -0,0 +1,161 @@
+package com.talaxie.components.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.junit.Test;
+
+public class RowGroupPrefetcherTest {
+
+    @Test(timeout = 10_000)
+    public void testRowGroupsInOrderWithoutSkippedOnes() throws IOException {
+        final RowGroupReader.RowGroup first = rowGroup(10L);
+        final RowGroupReader.RowGroup third = rowGroup(10L);
+        // Row group écarté par le column index (sans pages) : jamais transmis
+        final FakeSupplier supplier = new FakeSupplier(Arrays.asList(first, skipped(10L), third), false);
+
+        try (RowGroupPrefetcher prefetcher = new RowGroupPrefetcher("test", supplier, 2, 1_000L)) {
+            assertSame(first, prefetcher.next());
+            assertSame(third, prefetcher.next());
+            assertNull(prefetcher.next());
+            assertNull(prefetcher.next());
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testMemoryBudgetChargesRowGroupsActuallyRead() throws Exception {
+        // Le row group écarté est volumineux : il ne doit pas compter dans le budget
+        final RowGroupReader.RowGroup first = rowGroup(60L);
+        final RowGroupReader.RowGroup second = rowGroup(30L);
+        final RowGroupReader.RowGroup third = rowGroup(60L);
+        final FakeSupplier supplier = new FakeSupplier(Arrays.asList(first, skipped(1_000L), second, third), false);
+
+        try (RowGroupPrefetcher prefetcher = new RowGroupPrefetcher("test", supplier, 10, 100L)) {
+            awaitReads(supplier, 1);
+            Thread.sleep(200L);
+            assertEquals("60 + 1000 octets dépasseraient le budget", 1, supplier.reads.get());
+
+            assertSame(first, prefetcher.next());
+            // 30 + 60 octets tiennent dans le budget : lus sans attendre le consommateur
+            awaitReads(supplier, 4);
+            assertSame(second, prefetcher.next());
+            assertSame(third, prefetcher.next());
+            assertNull(prefetcher.next());
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testCloseWhileProducerBlocked() throws Exception {
+        final FakeSupplier supplier = new FakeSupplier(new ArrayList<>(), true);
+
+        final RowGroupPrefetcher prefetcher = new RowGroupPrefetcher("test", supplier, 2, Long.MAX_VALUE);
+        awaitReads(supplier, 2);
+        Thread.sleep(200L);
+        assertEquals("Au plus 2 row groups lus d'avance", 2, supplier.reads.get());
+
+        // Le thread de prefetch, bloqué sur la file pleine, est arrêté et attendu
+        prefetcher.close();
+        assertEquals(2, supplier.reads.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void testReadErrorIsPropagated() throws IOException {
+        final RowGroupReader.RowGroup first = rowGroup(10L);
+        final FakeSupplier supplier = new FakeSupplier(Arrays.asList(first), false);
+        supplier.failure = new IOException("boom");
+
+        try (RowGroupPrefetcher prefetcher = new RowGroupPrefetcher("test", supplier, 2, 1_000L)) {
+            // Les row groups lus avant l'erreur sont transmis
+            assertSame(first, prefetcher.next());
+            try {
+                prefetcher.next();
+                fail("L'erreur du thread de prefetch doit être transmise au lecteur");
+            } catch (IOException e) {
+                assertSame(supplier.failure, e.getCause());
+            }
+        }
+    }
+
+    private static void awaitReads(final FakeSupplier supplier, final int reads) throws InterruptedException {
+        while (supplier.reads.get() < reads) {
+            Thread.sleep(10L);
+        }
+    }
+
+    private static RowGroupReader.RowGroup rowGroup(final long size) {
+        final BlockMetaData block = new BlockMetaData();
+        block.setRowCount(1L);
+        return new RowGroupReader.RowGroup(block, new PageReadStore() {
+
+            @Override
+            public PageReader getPageReader(final ColumnDescriptor descriptor) {
+                return null;
+            }
+
+            @Override
+            public long getRowCount() {
+                return 1L;
+            }
+        }, size);
+    }
+
+    private static RowGroupReader.RowGroup skipped(final long size) {
+        final BlockMetaData block = new BlockMetaData();
+        block.setRowCount(1L);
+        return new RowGroupReader.RowGroup(block, null, size);
+    }
+
+    /**
+     * Row groups donnés puis fin de fichier, ou erreur, ou row groups sans fin.
+     */
+    private static final class FakeSupplier implements RowGroupPrefetcher.RowGroupSupplier {
+
+        private final List<RowGroupReader.RowGroup> groups;
+        private final boolean endless;
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile IOException failure;
+
+        FakeSupplier(final List<RowGroupReader.RowGroup> groups, final boolean endless) {
+            this.groups = groups;
+            this.endless = endless;
+        }
+
+        @Override
+        public long nextSize() {
+            final int index = reads.get();
+            if (index < groups.size()) {
+                return groups.get(index).getSize();
+            }
+            return endless ? 1L : 0L;
+        }
+
+        @Override
+        public RowGroupReader.RowGroup read() throws IOException {
+            final int index = reads.get();
+            if (index < groups.size()) {
+                reads.incrementAndGet();
+                return groups.get(index);
+            }
+            if (endless) {
+                reads.incrementAndGet();
+                return rowGroup(1L);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        }
+    }
+}